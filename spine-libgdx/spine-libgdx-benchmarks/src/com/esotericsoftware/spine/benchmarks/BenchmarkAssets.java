@@ -0,0 +1,159 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.benchmarks;
+
+import java.io.File;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.esotericsoftware.spine.AnimationState;
+import com.esotericsoftware.spine.AnimationStateData;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.SkeletonJson;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.PointAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+
+/** Loads the example skeletons from spine-libgdx-tests/assets without a GL context. The assets directory can be changed with the
+ * <code>spine.assets</code> system property. */
+public class BenchmarkAssets {
+	/** Creates attachments without texture regions so no atlas or GL context is needed. Mesh UVs are computed for a 0..1
+	 * region. */
+	static public final AttachmentLoader attachmentLoader = new AttachmentLoader() {
+		public RegionAttachment newRegionAttachment (Skin skin, String name, String path) {
+			return new RegionAttachment(name);
+		}
+
+		public MeshAttachment newMeshAttachment (Skin skin, String name, String path) {
+			return new MeshAttachment(name);
+		}
+
+		public BoundingBoxAttachment newBoundingBoxAttachment (Skin skin, String name) {
+			return new BoundingBoxAttachment(name);
+		}
+
+		public ClippingAttachment newClippingAttachment (Skin skin, String name) {
+			return new ClippingAttachment(name);
+		}
+
+		public PathAttachment newPathAttachment (Skin skin, String name) {
+			return new PathAttachment(name);
+		}
+
+		public PointAttachment newPointAttachment (Skin skin, String name) {
+			return new PointAttachment(name);
+		}
+	};
+
+	/** Like {@link #attachmentLoader}, but region and mesh attachments have a texture region without a texture, as
+	 * {@link com.esotericsoftware.spine.SkeletonRenderer} requires a region. */
+	static public final AttachmentLoader renderAttachmentLoader = new AttachmentLoader() {
+		public RegionAttachment newRegionAttachment (Skin skin, String name, String path) {
+			RegionAttachment attachment = new RegionAttachment(name);
+			attachment.setRegion(new TextureRegion());
+			return attachment;
+		}
+
+		public MeshAttachment newMeshAttachment (Skin skin, String name, String path) {
+			MeshAttachment attachment = new MeshAttachment(name);
+			attachment.setRegion(new TextureRegion());
+			return attachment;
+		}
+
+		public BoundingBoxAttachment newBoundingBoxAttachment (Skin skin, String name) {
+			return new BoundingBoxAttachment(name);
+		}
+
+		public ClippingAttachment newClippingAttachment (Skin skin, String name) {
+			return new ClippingAttachment(name);
+		}
+
+		public PathAttachment newPathAttachment (Skin skin, String name) {
+			return new PathAttachment(name);
+		}
+
+		public PointAttachment newPointAttachment (Skin skin, String name) {
+			return new PointAttachment(name);
+		}
+	};
+
+	static public FileHandle file (String name, String extension) {
+		File dir = new File(System.getProperty("spine.assets", "../spine-libgdx-tests/assets"));
+		File file = new File(dir, name + "/" + name + "-pro." + extension);
+		if (!file.exists()) throw new GdxRuntimeException("Asset not found, set -Dspine.assets: " + file.getAbsolutePath());
+		return new FileHandle(file);
+	}
+
+	static public SkeletonData json (String name) {
+		return new SkeletonJson(attachmentLoader).readSkeletonData(file(name, "json"));
+	}
+
+	static public SkeletonData binary (String name) {
+		return binary(name, false);
+	}
+
+	static public SkeletonData binary (String name, boolean curveLookup) {
+		SkeletonBinary binary = new SkeletonBinary(attachmentLoader);
+		binary.setCurveLookup(curveLookup);
+		return binary.readSkeletonData(file(name, "skel"));
+	}
+
+	/** Returns the animation that is looped for the named example skeleton. */
+	static public String animation (String name) {
+		if (name.equals("spineboy")) return "run";
+		return "walk";
+	}
+
+	/** Creates a skeleton in its setup pose with the skin the example expects. */
+	static public Skeleton skeleton (SkeletonData skeletonData) {
+		Skeleton skeleton = new Skeleton(skeletonData);
+		if (skeletonData.getName().equals("goblins-pro")) skeleton.setSkin("goblin");
+		skeleton.setToSetupPose();
+		skeleton.updateWorldTransform();
+		return skeleton;
+	}
+
+	/** Creates an animation state looping the example animation, advanced by the specified time. */
+	static public AnimationState state (SkeletonData skeletonData, String name, float time) {
+		AnimationState state = new AnimationState(new AnimationStateData(skeletonData));
+		state.setAnimation(0, animation(name), true);
+		state.update(time);
+		return state;
+	}
+}
@@ -0,0 +1,187 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonBounds;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.utils.SkeletonBoundsIndex;
+
+/** Measures hit detection of 256 points and 256 line segments against a crowd of spineboy skeletons with their head bounding
+ * box visible, by testing each {@link SkeletonBounds} and by using a {@link SkeletonBoundsIndex}. The skeletons are spread over
+ * a square with about 50 world units between them. Also measures updating the bounds of the skeletons, which are not moving,
+ * with and without {@link SkeletonBounds#setIncremental(boolean) incremental} updates. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundsBenchmark {
+	static private final int queryCount = 256;
+
+	@Param({"100", "1000", "10000"}) public int count;
+
+	final Array<Skeleton> skeletons = new Array();
+	final Array<SkeletonBounds> bounds = new Array(), incrementalBounds = new Array();
+	final SkeletonBoundsIndex index = new SkeletonBoundsIndex(150);
+	final float[] points = new float[queryCount * 2], segments = new float[queryCount * 4];
+
+	@Setup
+	public void setup () {
+		SkeletonData skeletonData = BenchmarkAssets.binary("spineboy");
+		RandomXS128 random = new RandomXS128(1);
+		float size = (float)Math.sqrt(count) * 50;
+		for (int i = 0; i < count; i++) {
+			Skeleton skeleton = BenchmarkAssets.skeleton(skeletonData);
+			skeleton.setAttachment("head-bb", "head");
+			skeleton.setPosition(random.nextFloat() * size, random.nextFloat() * size);
+			skeleton.getRootBone().setScale(0.25f);
+			skeleton.updateWorldTransform();
+			SkeletonBounds bounds = new SkeletonBounds();
+			bounds.update(skeleton, true);
+			this.bounds.add(bounds);
+			index.add(skeleton, bounds);
+			skeletons.add(skeleton);
+
+			SkeletonBounds incremental = new SkeletonBounds();
+			incremental.setIncremental(true);
+			incremental.update(skeleton, true);
+			incrementalBounds.add(incremental);
+		}
+		index.update();
+
+		for (int i = 0; i < queryCount; i++) {
+			float x = random.nextFloat() * size, y = random.nextFloat() * size;
+			points[i * 2] = x;
+			points[i * 2 + 1] = y;
+			segments[i * 4] = x;
+			segments[i * 4 + 1] = y;
+			segments[i * 4 + 2] = x + random.nextFloat() * 200 - 100;
+			segments[i * 4 + 3] = y + random.nextFloat() * 200 - 100;
+		}
+	}
+
+	@Benchmark
+	public int containsPoint () {
+		Array<SkeletonBounds> bounds = this.bounds;
+		float[] points = this.points;
+		int hits = 0;
+		for (int i = 0; i < queryCount * 2; i += 2) {
+			float x = points[i], y = points[i + 1];
+			for (int ii = 0, n = bounds.size; ii < n; ii++) {
+				SkeletonBounds skeletonBounds = bounds.get(ii);
+				if (skeletonBounds.aabbContainsPoint(x, y) && skeletonBounds.containsPoint(x, y) != null) {
+					hits++;
+					break;
+				}
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int containsPointIndex () {
+		SkeletonBoundsIndex index = this.index;
+		float[] points = this.points;
+		int hits = 0;
+		for (int i = 0; i < queryCount * 2; i += 2)
+			if (index.containsPoint(points[i], points[i + 1]) != null) hits++;
+		return hits;
+	}
+
+	@Benchmark
+	public int intersectsSegment () {
+		Array<SkeletonBounds> bounds = this.bounds;
+		float[] segments = this.segments;
+		int hits = 0;
+		for (int i = 0; i < queryCount * 4; i += 4) {
+			float x1 = segments[i], y1 = segments[i + 1], x2 = segments[i + 2], y2 = segments[i + 3];
+			for (int ii = 0, n = bounds.size; ii < n; ii++) {
+				SkeletonBounds skeletonBounds = bounds.get(ii);
+				if (skeletonBounds.aabbIntersectsSegment(x1, y1, x2, y2) && skeletonBounds.intersectsSegment(x1, y1, x2, y2) != null) {
+					hits++;
+					break;
+				}
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int intersectsSegmentIndex () {
+		SkeletonBoundsIndex index = this.index;
+		float[] segments = this.segments;
+		int hits = 0;
+		for (int i = 0; i < queryCount * 4; i += 4)
+			if (index.intersectsSegment(segments[i], segments[i + 1], segments[i + 2], segments[i + 3]) != null) hits++;
+		return hits;
+	}
+
+	@Benchmark
+	public Array<SkeletonBounds> updateBounds () {
+		return update(bounds);
+	}
+
+	@Benchmark
+	public Array<SkeletonBounds> updateBoundsIncremental () {
+		return update(incrementalBounds);
+	}
+
+	private Array<SkeletonBounds> update (Array<SkeletonBounds> bounds) {
+		Array<Skeleton> skeletons = this.skeletons;
+		for (int i = 0, n = skeletons.size; i < n; i++)
+			bounds.get(i).update(skeletons.get(i), true);
+		return bounds;
+	}
+
+	@Benchmark
+	public SkeletonBoundsIndex updateIndex () {
+		index.update();
+		return index;
+	}
+}
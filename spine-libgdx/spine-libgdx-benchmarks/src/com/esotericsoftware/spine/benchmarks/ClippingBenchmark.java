@@ -0,0 +1,151 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.SlotData;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.utils.SkeletonClipping;
+
+/** Measures {@link SkeletonClipping#clipTriangles(float[], int, short[], int, float[], float, float, boolean)} for every region
+ * and mesh attachment of the posed skeleton against a concave star shaped clipping polygon covering the skeleton's center, and
+ * {@link SkeletonClipping#clipStart(Slot, ClippingAttachment)} for that polygon. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClippingBenchmark {
+	static private final short[] quadTriangles = {0, 1, 2, 2, 3, 0};
+
+	@Param({"spineboy", "raptor", "goblins"}) public String name;
+
+	final SkeletonClipping clipper = new SkeletonClipping();
+	final Array<float[]> vertices = new Array();
+	final Array<short[]> triangles = new Array();
+	final Array<float[]> uvs = new Array();
+	final float light = Color.WHITE.toFloatBits(), dark = Color.BLACK.toFloatBits();
+	Slot clipSlot;
+	ClippingAttachment clip;
+
+	@Setup
+	public void setup () {
+		SkeletonData skeletonData = BenchmarkAssets.binary(name);
+		Skeleton skeleton = BenchmarkAssets.skeleton(skeletonData);
+		BenchmarkAssets.state(skeletonData, name, 0.25f).apply(skeleton);
+		skeleton.updateWorldTransform();
+
+		for (Slot slot : skeleton.getDrawOrder()) {
+			Attachment attachment = slot.getAttachment();
+			if (attachment instanceof RegionAttachment) {
+				RegionAttachment region = (RegionAttachment)attachment;
+				float[] world = new float[8];
+				region.computeWorldVertices(slot.getBone(), world, 0, 2);
+				vertices.add(world);
+				triangles.add(quadTriangles);
+				uvs.add(region.getUVs());
+			} else if (attachment instanceof MeshAttachment) {
+				MeshAttachment mesh = (MeshAttachment)attachment;
+				float[] world = new float[mesh.getWorldVerticesLength()];
+				mesh.computeWorldVertices(slot, 0, world.length, world, 0, 2);
+				vertices.add(world);
+				triangles.add(mesh.getTriangles());
+				uvs.add(mesh.getUVs());
+			}
+		}
+
+		Vector2 offset = new Vector2(), size = new Vector2();
+		skeleton.getBounds(offset, size, new FloatArray());
+		float centerX = offset.x + size.x / 2, centerY = offset.y + size.y / 2;
+		float radius = Math.min(size.x, size.y) / 2;
+
+		// Star polygon in the root bone's local space, so the triangulated and decomposed polygon has several parts.
+		Bone root = skeleton.getRootBone();
+		int points = 5;
+		float[] polygon = new float[points * 4];
+		Vector2 temp = new Vector2();
+		for (int i = 0, ii = 0; i < points * 2; i++, ii += 2) {
+			float angle = MathUtils.PI2 * i / (points * 2), r = i % 2 == 0 ? radius : radius * 0.45f;
+			root.worldToLocal(temp.set(centerX + MathUtils.cos(angle) * r, centerY + MathUtils.sin(angle) * r));
+			polygon[ii] = temp.x;
+			polygon[ii + 1] = temp.y;
+		}
+		clip = new ClippingAttachment("clip");
+		clip.setVertices(polygon);
+		clip.setWorldVerticesLength(polygon.length);
+		clipSlot = new Slot(new SlotData(0, "clip", root.getData()), root);
+		clipper.clipStart(clipSlot, clip);
+	}
+
+	@Benchmark
+	public int clipStart () {
+		SkeletonClipping clipper = this.clipper;
+		clipper.clipEnd();
+		return clipper.clipStart(clipSlot, clip);
+	}
+
+	@Benchmark
+	public SkeletonClipping clipTriangles () {
+		SkeletonClipping clipper = this.clipper;
+		for (int i = 0, n = vertices.size; i < n; i++) {
+			float[] vertices = this.vertices.get(i);
+			short[] triangles = this.triangles.get(i);
+			clipper.clipTriangles(vertices, vertices.length, triangles, triangles.length, uvs.get(i), light, dark, false);
+		}
+		return clipper;
+	}
+}
@@ -0,0 +1,121 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.SkeletonJson;
+import com.esotericsoftware.spine.SkeletonSnapshot;
+import com.esotericsoftware.spine.attachments.HeadlessAttachmentLoader;
+
+/** Measures {@link SkeletonBinary#readSkeletonData(FileHandle)} and {@link SkeletonJson#readSkeletonData(FileHandle)}. The files
+ * are read into memory once so disk access is not measured. {@link SkeletonSnapshot} reads a snapshot written from the binary
+ * skeleton data. The headless benchmark reads the binary file with a {@link HeadlessAttachmentLoader}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+	@Param({"spineboy", "raptor", "goblins"}) public String name;
+
+	final HeadlessAttachmentLoader headlessLoader = new HeadlessAttachmentLoader();
+	FileHandle binaryFile, jsonFile, snapshotFile;
+
+	@Setup
+	public void setup () throws IOException {
+		binaryFile = new MemoryFileHandle(BenchmarkAssets.file(name, "skel"));
+		jsonFile = new MemoryFileHandle(BenchmarkAssets.file(name, "json"));
+
+		File file = File.createTempFile(name, ".snapshot");
+		file.deleteOnExit();
+		FileHandle snapshot = new FileHandle(file);
+		new SkeletonSnapshot(BenchmarkAssets.attachmentLoader).writeSkeletonData(BenchmarkAssets.binary(name), snapshot);
+		snapshotFile = new MemoryFileHandle(snapshot);
+	}
+
+	@Benchmark
+	public SkeletonData readBinary () {
+		return new SkeletonBinary(BenchmarkAssets.attachmentLoader).readSkeletonData(binaryFile);
+	}
+
+	@Benchmark
+	public SkeletonData readBinaryHeadless () {
+		return new SkeletonBinary(headlessLoader).readSkeletonData(binaryFile);
+	}
+
+	@Benchmark
+	public SkeletonData readJson () {
+		return new SkeletonJson(BenchmarkAssets.attachmentLoader).readSkeletonData(jsonFile);
+	}
+
+	@Benchmark
+	public SkeletonData readSnapshot () {
+		return new SkeletonSnapshot(BenchmarkAssets.attachmentLoader).readSkeletonData(snapshotFile);
+	}
+
+	static class MemoryFileHandle extends FileHandle {
+		final byte[] bytes;
+
+		MemoryFileHandle (FileHandle file) {
+			super(file.file());
+			bytes = file.readBytes();
+		}
+
+		public InputStream read () {
+			return new ByteArrayInputStream(bytes);
+		}
+
+		public long length () {
+			return bytes.length;
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.SkeletonPose;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+import com.esotericsoftware.spine.utils.WeightedVertexSkinner;
+
+/** Measures {@link VertexAttachment#computeWorldVertices(Slot, int, int, float[], int, int)} for every vertex attachment
+ * visible in the posed skeleton, and compares it to {@link WeightedVertexSkinner} for the weighted attachments, including the
+ * cost of copying the bones to a {@link SkeletonPose}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VertexAttachmentBenchmark {
+	@Param({"spineboy", "raptor", "goblins"}) public String name;
+
+	Skeleton skeleton;
+	SkeletonPose pose;
+	final Array<Slot> slots = new Array();
+	final Array<VertexAttachment> attachments = new Array();
+	final Array<Slot> weightedSlots = new Array();
+	final Array<WeightedVertexSkinner> skinners = new Array();
+	float[] worldVertices;
+
+	@Setup
+	public void setup () {
+		SkeletonData skeletonData = BenchmarkAssets.binary(name);
+		skeleton = BenchmarkAssets.skeleton(skeletonData);
+		pose = new SkeletonPose(skeletonData);
+		BenchmarkAssets.state(skeletonData, name, 0.25f).apply(skeleton);
+		skeleton.updateWorldTransform();
+		int max = 0;
+		for (Slot slot : skeleton.getDrawOrder()) {
+			Attachment attachment = slot.getAttachment();
+			if (!(attachment instanceof VertexAttachment)) continue;
+			VertexAttachment vertexAttachment = (VertexAttachment)attachment;
+			slots.add(slot);
+			attachments.add(vertexAttachment);
+			max = Math.max(max, vertexAttachment.getWorldVerticesLength());
+			if (vertexAttachment.getBones() != null) {
+				weightedSlots.add(slot);
+				skinners.add(new WeightedVertexSkinner(vertexAttachment));
+			}
+		}
+		worldVertices = new float[max];
+	}
+
+	@Benchmark
+	public float[] computeWorldVertices () {
+		float[] worldVertices = this.worldVertices;
+		for (int i = 0, n = attachments.size; i < n; i++) {
+			VertexAttachment attachment = attachments.get(i);
+			attachment.computeWorldVertices(slots.get(i), 0, attachment.getWorldVerticesLength(), worldVertices, 0, 2);
+		}
+		return worldVertices;
+	}
+
+	@Benchmark
+	public float[] computeWorldVerticesWeighted () {
+		float[] worldVertices = this.worldVertices;
+		for (int i = 0, n = skinners.size; i < n; i++) {
+			VertexAttachment attachment = skinners.get(i).getAttachment();
+			attachment.computeWorldVertices(weightedSlots.get(i), 0, attachment.getWorldVerticesLength(), worldVertices, 0, 2);
+		}
+		return worldVertices;
+	}
+
+	@Benchmark
+	public float[] skinWeighted () {
+		float[] worldVertices = this.worldVertices;
+		skeleton.getPose(pose);
+		float[] world = pose.getWorld();
+		for (int i = 0, n = skinners.size; i < n; i++) {
+			FloatArray deform = weightedSlots.get(i).getAttachmentVertices();
+			skinners.get(i).computeWorldVertices(world, deform.size > 0 ? deform.items : null, worldVertices, 0, 2);
+		}
+		return worldVertices;
+	}
+}
@@ -0,0 +1,143 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import java.lang.management.ManagementFactory;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.backends.lwjgl.LwjglFileHandle;
+import com.esotericsoftware.spine.AnimationState.AnimationStateAdapter;
+import com.esotericsoftware.spine.AnimationState.TrackEntry;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.PointAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+
+/** Checks that updating and applying an AnimationState does not allocate once warmed up, including when listener notifications
+ * are queued and drained every frame. Requires a JVM that supports measuring thread allocations. */
+public class AnimationStateAllocationTests {
+	static final int cycles = 10000, warmupRuns = 10;
+	static final String[] animations = {"events0", "events1", "events2"};
+
+	final Skeleton skeleton;
+	final AnimationState state;
+	int notifications;
+
+	AnimationStateAllocationTests () {
+		SkeletonJson json = new SkeletonJson(new AttachmentLoader() {
+			public RegionAttachment newRegionAttachment (Skin skin, String name, String path) {
+				return null;
+			}
+
+			public MeshAttachment newMeshAttachment (Skin skin, String name, String path) {
+				return null;
+			}
+
+			public BoundingBoxAttachment newBoundingBoxAttachment (Skin skin, String name) {
+				return null;
+			}
+
+			public ClippingAttachment newClippingAttachment (Skin skin, String name) {
+				return null;
+			}
+
+			public PathAttachment newPathAttachment (Skin skin, String name) {
+				return null;
+			}
+
+			public PointAttachment newPointAttachment (Skin skin, String name) {
+				return null;
+			}
+		});
+		SkeletonData skeletonData = json.readSkeletonData(new LwjglFileHandle("test/test.json", FileType.Internal));
+
+		AnimationStateData stateData = new AnimationStateData(skeletonData);
+		stateData.setDefaultMix(0.1f);
+		skeleton = new Skeleton(skeletonData);
+		state = new AnimationState(stateData);
+		state.addListener(new AnimationStateAdapter() {
+			public void start (TrackEntry entry) {
+				notifications++;
+			}
+
+			public void end (TrackEntry entry) {
+				notifications++;
+			}
+
+			public void complete (TrackEntry entry) {
+				notifications++;
+			}
+
+			public void event (TrackEntry entry, Event event) {
+				notifications++;
+			}
+		});
+
+		// Warm up pools, buffers and the JIT. Deoptimization while methods are recompiled can allocate.
+		for (int i = 0; i < warmupRuns; i++)
+			run(cycles);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		notifications = 0;
+		long before = threads.getThreadAllocatedBytes(thread);
+		run(cycles);
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+		System.out.println("Notifications: " + notifications + ", allocated: " + allocated + " bytes");
+		if (notifications == 0) fail("No listener notifications.");
+		if (allocated != 0) fail(allocated + " bytes allocated in " + cycles + " cycles.");
+		System.out.println("AnimationState allocation tests passed.");
+	}
+
+	void run (int cycles) {
+		for (int i = 0; i < cycles; i++) {
+			if (i % 60 == 0) {
+				state.setAnimation(0, animations[i / 60 % animations.length], true);
+				state.addAnimation(1, animations[(i / 60 + 1) % animations.length], false, 0);
+			}
+			state.update(1 / 60f);
+			state.apply(skeleton);
+			skeleton.updateWorldTransform();
+		}
+	}
+
+	void fail (String message) {
+		System.out.println("FAIL: " + message);
+		System.exit(0);
+	}
+
+	static public void main (String[] args) throws Exception {
+		new AnimationStateAllocationTests();
+	}
+}
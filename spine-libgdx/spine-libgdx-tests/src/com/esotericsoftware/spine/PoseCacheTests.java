@@ -0,0 +1,152 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.utils.PoseCache;
+
+/** Unit tests for {@link PoseCache}. */
+public class PoseCacheTests {
+	private final SkeletonData skeletonData = new SkeletonData();
+	private final Skeleton skeleton;
+	private final Animation animation1, animation2, deformAnimation;
+	private final PoseCache cache = new PoseCache(30, Long.MAX_VALUE);
+
+	public PoseCacheTests () {
+		BoneData boneData = new BoneData(0, "bone", null);
+		skeletonData.getBones().add(boneData);
+		SlotData slotData = new SlotData(0, "slot", boneData);
+		slotData.setAttachmentName("mesh");
+		skeletonData.getSlots().add(slotData);
+		MeshAttachment mesh = new MeshAttachment("mesh");
+		mesh.setVertices(new float[] {0, 0, 1, 0, 0, 1});
+		mesh.setWorldVerticesLength(6);
+		Skin skin = new Skin("default");
+		skin.addAttachment(0, "mesh", mesh);
+		skeletonData.setDefaultSkin(skin);
+
+		animation1 = animation("animation1", 90);
+		animation2 = animation("animation2", 180);
+		deformAnimation = deformAnimation(mesh);
+		skeletonData.getAnimations().add(animation1);
+		skeletonData.getAnimations().add(animation2);
+		skeletonData.getAnimations().add(deformAnimation);
+		skeleton = new Skeleton(skeletonData);
+
+		cacheAndClear();
+		deform();
+
+		System.out.println("PoseCache tests passed.");
+	}
+
+	private Animation animation (String name, float degrees) {
+		RotateTimeline timeline = new RotateTimeline(2);
+		timeline.setFrame(0, 0, 0);
+		timeline.setFrame(1, 1, degrees);
+		Array<Timeline> timelines = new Array();
+		timelines.add(timeline);
+		return new Animation(name, timelines, 1);
+	}
+
+	private Animation deformAnimation (MeshAttachment mesh) {
+		DeformTimeline timeline = new DeformTimeline(2);
+		timeline.setSlotIndex(0);
+		timeline.setAttachment(mesh);
+		timeline.setFrame(0, 0, new float[] {0, 0, 1, 0, 0, 1});
+		timeline.setFrame(1, 1, new float[] {2, 2, 3, 2, 2, 3});
+		Array<Timeline> timelines = new Array();
+		timelines.add(timeline);
+		return new Animation("deform", timelines, 1);
+	}
+
+	private void cacheAndClear () {
+		cache.apply(skeleton, animation1, 0.5f, false);
+		cache.apply(skeleton, animation2, 0.5f, false);
+		cache.apply(skeleton, animation2, 0.5f, false); // Hit, animation1 is now the least recently used.
+		if (cache.getSize() != 2) throw new FailException("Wrong size: " + cache.getSize());
+		if (cache.getHits() != 1) throw new FailException("Wrong hits: " + cache.getHits());
+		long bytes = cache.getBytes();
+
+		cache.clear(animation1);
+		if (cache.getSize() != 1) throw new FailException("Wrong size after clear: " + cache.getSize());
+		if (cache.getBytes() != bytes / 2) throw new FailException("Wrong bytes after clear: " + cache.getBytes());
+
+		// The pose for animation2 is still cached, animation1 is computed again.
+		cache.resetCounters();
+		cache.apply(skeleton, animation2, 0.5f, false);
+		cache.apply(skeleton, animation1, 0.5f, false);
+		if (cache.getHits() != 1 || cache.getMisses() != 1)
+			throw new FailException("Wrong hits and misses after clear: " + cache.getHits() + ", " + cache.getMisses());
+		if (skeleton.getRootBone().getWorldRotationX() != 45)
+			throw new FailException("Wrong rotation: " + skeleton.getRootBone().getWorldRotationX());
+	}
+
+	/** Skeletons posed from a cached pose must get the same deform as the skeleton that computed it. */
+	private void deform () {
+		cache.clear();
+		Skeleton skeleton1 = new Skeleton(skeletonData), skeleton2 = new Skeleton(skeletonData);
+		cache.apply(skeleton1, deformAnimation, 0.5f, false); // Miss.
+		cache.apply(skeleton2, deformAnimation, 0.5f, false); // Hit.
+		expectDeform(skeleton1, 1, 1, 2, 1, 1, 2);
+		expectDeform(skeleton2, 1, 1, 2, 1, 1, 2);
+
+		cache.apply(skeleton1, deformAnimation, 1, false); // Miss.
+		cache.apply(skeleton1, deformAnimation, 0.5f, false); // Hit.
+		expectDeform(skeleton1, 1, 1, 2, 1, 1, 2);
+
+		cache.apply(skeleton1, animation1, 0.5f, false); // Miss, the mesh is not deformed.
+		cache.apply(skeleton2, animation1, 0.5f, false); // Hit.
+		expectDeform(skeleton1);
+		expectDeform(skeleton2);
+	}
+
+	private void expectDeform (Skeleton skeleton, float... expected) {
+		float[] actual = skeleton.getSlots().first().getAttachmentVertices().toArray();
+		if (!Arrays.equals(actual, expected))
+			throw new FailException("Wrong deform: " + Arrays.toString(actual) + ", expected: " + Arrays.toString(expected));
+	}
+
+	static class FailException extends RuntimeException {
+		public FailException (String message) {
+			super(message);
+		}
+	}
+
+	static public void main (String[] args) throws Exception {
+		new PoseCacheTests();
+	}
+}
@@ -0,0 +1,143 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.FloatArray;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.utils.RenderCommandBuffer;
+import com.esotericsoftware.spine.utils.RenderCommandSorter;
+
+/** Unit tests for {@link RenderCommandBuffer} and {@link RenderCommandSorter}, which run without a GL context. */
+public class RenderCommandBufferTests {
+	private final Skeleton skeleton;
+	private final RenderCommandBuffer buffer = new RenderCommandBuffer();
+	private final SkeletonRenderer renderer = new SkeletonRenderer();
+
+	public RenderCommandBufferTests () {
+		SkeletonData skeletonData = new SkeletonData();
+		BoneData boneData = new BoneData(0, "bone", null);
+		boneData.setRotation(30);
+		skeletonData.getBones().add(boneData);
+
+		Skin skin = new Skin("skin");
+		String[] names = {"normal1", "normal2", "additive"};
+		for (int i = 0; i < names.length; i++) {
+			SlotData slotData = new SlotData(i, names[i], boneData);
+			if (i == 2) slotData.setBlendMode(BlendMode.additive);
+			slotData.setAttachmentName(names[i]);
+			skeletonData.getSlots().add(slotData);
+
+			RegionAttachment attachment = new RegionAttachment(names[i]);
+			attachment.setRegion(new TextureRegion());
+			attachment.setX(i * 10);
+			attachment.setWidth(20);
+			attachment.setHeight(10);
+			attachment.setScaleX(1);
+			attachment.setScaleY(1);
+			attachment.updateOffset();
+			skin.addAttachment(i, names[i], attachment);
+		}
+		skeletonData.setDefaultSkin(skin);
+
+		skeleton = new Skeleton(skeletonData);
+		skeleton.setPosition(100, 50);
+		skeleton.findSlot("normal2").getColor().set(1, 0, 0, 0.5f);
+		skeleton.updateWorldTransform();
+
+		renderer.draw(buffer, skeleton);
+		check();
+
+		// Recording again after clear must produce the same commands.
+		buffer.clear();
+		renderer.draw(buffer, skeleton);
+		check();
+
+		sort();
+
+		System.out.println("RenderCommandBuffer tests passed.");
+	}
+
+	private void check () {
+		if (buffer.getDrawCount() != 3) throw new FailException("Wrong draw count: " + buffer.getDrawCount());
+		if (buffer.getCommandCount() != 2) throw new FailException("Wrong command count: " + buffer.getCommandCount());
+		int[] commands = buffer.getCommands().items;
+		if (commands[0] != GL20.GL_SRC_ALPHA || commands[1] != GL20.GL_ONE_MINUS_SRC_ALPHA || commands[3] != 2)
+			throw new FailException("Wrong normal command.");
+		if (commands[4] != GL20.GL_SRC_ALPHA || commands[5] != GL20.GL_ONE || commands[7] != 1)
+			throw new FailException("Wrong additive command.");
+		if (buffer.getTextures().get(0) != null) throw new FailException("Texture should be null.");
+
+		float[] world = new float[8];
+		FloatArray vertices = buffer.getVertices();
+		int[] draws = buffer.getDraws().items;
+		for (int i = 0; i < 3; i++) {
+			Slot slot = skeleton.getSlots().get(i);
+			((RegionAttachment)slot.getAttachment()).computeWorldVertices(slot.getBone(), world, 0, 2);
+			int offset = draws[i * RenderCommandBuffer.DRAW_SIZE];
+			if (draws[i * RenderCommandBuffer.DRAW_SIZE + 1] != 24) throw new FailException("Wrong vertex count for draw: " + i);
+			if (draws[i * RenderCommandBuffer.DRAW_SIZE + 3] != 6) throw new FailException("Wrong triangle count for draw: " + i);
+			for (int v = 0; v < 4; v++) {
+				if (vertices.get(offset + v * 6) != world[v * 2] || vertices.get(offset + v * 6 + 1) != world[v * 2 + 1])
+					throw new FailException("Wrong position for draw " + i + ", vertex " + v);
+			}
+			float light = vertices.get(offset + 2);
+			float expected = i == 1 ? new Color(1, 0, 0, 0.5f).toFloatBits() : Color.WHITE.toFloatBits();
+			if (light != expected) throw new FailException("Wrong color for draw: " + i);
+		}
+	}
+
+	private void sort () {
+		// Each buffer alternates between the normal and additive blend functions, sorting groups them.
+		RenderCommandSorter sorter = new RenderCommandSorter();
+		for (int i = 0; i < 3; i++) {
+			RenderCommandBuffer buffer = new RenderCommandBuffer();
+			renderer.draw(buffer, skeleton);
+			sorter.add(buffer);
+		}
+		if (sorter.getCommandCount() != 6) throw new FailException("Wrong sorted command count: " + sorter.getCommandCount());
+		if (sorter.getUnsortedFlushCount() != 6)
+			throw new FailException("Wrong unsorted flush count: " + sorter.getUnsortedFlushCount());
+		if (sorter.getFlushCount() != 2) throw new FailException("Wrong flush count: " + sorter.getFlushCount());
+	}
+
+	static class FailException extends RuntimeException {
+		public FailException (String message) {
+			super(message);
+		}
+	}
+
+	static public void main (String[] args) throws Exception {
+		new RenderCommandBufferTests();
+	}
+}
@@ -0,0 +1,129 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+
+/** Unit tests for {@link SkeletonBounds}. */
+public class SkeletonBoundsTests {
+	private final Skeleton skeleton;
+	private final SkeletonBounds bounds = new SkeletonBounds();
+
+	public SkeletonBoundsTests () {
+		SkeletonData skeletonData = new SkeletonData();
+		BoneData boneData = new BoneData(0, "bone", null);
+		boneData.setX(100);
+		skeletonData.getBones().add(boneData);
+		SlotData slotData = new SlotData(0, "slot", boneData);
+		slotData.setAttachmentName("box");
+		skeletonData.getSlots().add(slotData);
+		skeletonData.getSlots().add(new SlotData(1, "slot2", boneData));
+
+		BoundingBoxAttachment box = new BoundingBoxAttachment("box");
+		box.setVertices(new float[] {0, 0, 10, 0, 10, 10, 0, 10});
+		box.setWorldVerticesLength(8);
+		Skin skin = new Skin("skin");
+		skin.addAttachment(0, "box", box);
+		BoundingBoxAttachment box2 = new BoundingBoxAttachment("box2");
+		box2.setVertices(new float[] {-10, 0, 0, 0, 0, 10});
+		box2.setWorldVerticesLength(6);
+		skin.addAttachment(1, "box2", box2);
+		skeletonData.setDefaultSkin(skin);
+
+		skeleton = new Skeleton(skeletonData);
+		skeleton.setToSetupPose();
+		skeleton.updateWorldTransform();
+		bounds.setIncremental(true);
+
+		deform();
+		attachment();
+
+		System.out.println("SkeletonBounds tests passed.");
+	}
+
+	/** A polygon must be computed again when its deform is cleared, even if the bone did not move. */
+	private void deform () {
+		bounds.update(skeleton, true);
+		check(100, 110);
+
+		FloatArray deform = skeleton.getSlots().first().getAttachmentVertices();
+		deform.addAll(new float[] {20, 0, 30, 0, 30, 10, 20, 10});
+		bounds.update(skeleton, true);
+		check(120, 130);
+
+		deform.clear();
+		bounds.update(skeleton, true);
+		check(100, 110);
+
+		bounds.update(skeleton, true);
+		if (bounds.getUpdatedPolygonCount() != 0)
+			throw new FailException("Polygon computed without changes: " + bounds.getUpdatedPolygonCount());
+		check(100, 110);
+	}
+
+	/** Bounding boxes attached after the first update must be found, even though only the slots with a bounding box are
+	 * visited while the attachments are unchanged. */
+	private void attachment () {
+		bounds.update(skeleton, true);
+		if (bounds.getPolygons().size != 1) throw new FailException("Wrong polygon count: " + bounds.getPolygons().size);
+
+		skeleton.setAttachment("slot2", "box2");
+		bounds.update(skeleton, true);
+		if (bounds.getPolygons().size != 2) throw new FailException("Bounding box not found: " + bounds.getPolygons().size);
+		if (bounds.getUpdatedPolygonCount() != 1)
+			throw new FailException("Wrong updated polygon count: " + bounds.getUpdatedPolygonCount());
+		if (bounds.getMinX() != 90 || bounds.getMaxX() != 110)
+			throw new FailException("Wrong AABB: " + bounds.getMinX() + ", " + bounds.getMaxX());
+
+		skeleton.setAttachment("slot2", null);
+		bounds.update(skeleton, true);
+		if (bounds.getPolygons().size != 1) throw new FailException("Bounding box not removed: " + bounds.getPolygons().size);
+		check(100, 110);
+	}
+
+	private void check (float minX, float maxX) {
+		float[] polygon = bounds.getPolygons().first().items;
+		if (polygon[0] != minX || polygon[2] != maxX) throw new FailException("Wrong polygon: " + polygon[0] + ", " + polygon[2]);
+		if (bounds.getMinX() != minX || bounds.getMaxX() != maxX)
+			throw new FailException("Wrong AABB: " + bounds.getMinX() + ", " + bounds.getMaxX());
+	}
+
+	static class FailException extends RuntimeException {
+		public FailException (String message) {
+			super(message);
+		}
+	}
+
+	static public void main (String[] args) throws Exception {
+		new SkeletonBoundsTests();
+	}
+}
@@ -0,0 +1,136 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.backends.lwjgl.LwjglFileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation.CompressedDeformTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.PointAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.utils.AnimationOptimizer;
+import com.esotericsoftware.spine.utils.SkeletonDataInterner;
+
+/** Unit tests for {@link SkeletonDataInterner}. */
+public class SkeletonDataInternerTests {
+	private final SkeletonJson json = new SkeletonJson(new AttachmentLoader() {
+		public RegionAttachment newRegionAttachment (Skin skin, String name, String path) {
+			return new RegionAttachment(name);
+		}
+
+		public MeshAttachment newMeshAttachment (Skin skin, String name, String path) {
+			return new MeshAttachment(name);
+		}
+
+		public BoundingBoxAttachment newBoundingBoxAttachment (Skin skin, String name) {
+			return new BoundingBoxAttachment(name);
+		}
+
+		public ClippingAttachment newClippingAttachment (Skin skin, String name) {
+			return new ClippingAttachment(name);
+		}
+
+		public PathAttachment newPathAttachment (Skin skin, String name) {
+			return new PathAttachment(name);
+		}
+
+		public PointAttachment newPointAttachment (Skin skin, String name) {
+			return new PointAttachment(name);
+		}
+	});
+
+	public SkeletonDataInternerTests () {
+		compressed();
+
+		System.out.println("SkeletonDataInterner tests passed.");
+	}
+
+	private SkeletonData read () {
+		return json.readSkeletonData(new LwjglFileHandle("spineboy/spineboy-pro.json", FileType.Internal));
+	}
+
+	/** Interning must not decode compressed deform timelines. */
+	private void compressed () {
+		SkeletonData skeletonData = read();
+		if (new AnimationOptimizer().compressDeformTimelines(skeletonData) == 0) throw new FailException("No deform timelines.");
+
+		Array<CompressedDeformTimeline> timelines = new Array();
+		Array<float[]> vertices = new Array();
+		for (Animation animation : skeletonData.getAnimations()) {
+			for (Timeline timeline : animation.getTimelines()) {
+				if (!(timeline instanceof CompressedDeformTimeline)) continue;
+				CompressedDeformTimeline deform = (CompressedDeformTimeline)timeline;
+				float[] frameVertices = new float[deform.getVertexCount()];
+				deform.getVertices(deform.getFrameCount() - 1, frameVertices);
+				timelines.add(deform);
+				vertices.add(frameVertices);
+			}
+		}
+
+		SkeletonDataInterner interner = new SkeletonDataInterner();
+		interner.intern(skeletonData);
+		interner.intern(read());
+		if (interner.getSharedCount() == 0) throw new FailException("No arrays shared.");
+
+		int i = 0;
+		for (Animation animation : skeletonData.getAnimations()) {
+			for (Timeline timeline : animation.getTimelines()) {
+				if (!(timeline instanceof CompressedDeformTimeline)) continue;
+				CompressedDeformTimeline deform = (CompressedDeformTimeline)timeline;
+				if (deform != timelines.get(i)) throw new FailException("Compressed timeline replaced: " + animation);
+				float[] frameVertices = new float[deform.getVertexCount()];
+				deform.getVertices(deform.getFrameCount() - 1, frameVertices);
+				if (!Arrays.equals(frameVertices, vertices.get(i)))
+					throw new FailException("Compressed timeline changed: " + animation);
+				i++;
+			}
+		}
+		if (i != timelines.size) throw new FailException("Wrong compressed timeline count: " + i);
+	}
+
+	static class FailException extends RuntimeException {
+		public FailException (String message) {
+			super(message);
+		}
+	}
+
+	static public void main (String[] args) throws Exception {
+		new SkeletonDataInternerTests();
+	}
+}
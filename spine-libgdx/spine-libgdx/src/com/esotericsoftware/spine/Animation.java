@@ -33,6 +33,8 @@ package com.esotericsoftware.spine;
 import static com.esotericsoftware.spine.Animation.MixDirection.*;
 import static com.esotericsoftware.spine.Animation.MixPose.*;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
@@ -93,6 +95,20 @@ public class Animation {
 		return name;
 	}
 
+	/** Returns the same index as {@link #binarySearch(float[], float, int)}, first checking the index found by a previous search
+	 * and the index after it, which are usually correct when the target advances by small amounts.
+	 * @param hint An index returned by a previous search of the values.
+	 * @param target After the first and before the last value.
+	 * @return index of first value greater than the target. */
+	static int binarySearch (float[] values, float target, int step, int hint) {
+		if (hint >= step && hint < values.length && values[hint - step] <= target) {
+			if (target < values[hint]) return hint;
+			hint += step;
+			if (hint < values.length && target < values[hint]) return hint;
+		}
+		return binarySearch(values, target, step);
+	}
+
 	/** @param target After the first and before the last value.
 	 * @return index of first value greater than the target. */
 	static int binarySearch (float[] values, float target, int step) {
@@ -127,6 +143,16 @@ public class Animation {
 		}
 	}
 
+	/** Returns the same index as {@link #binarySearch(float[], float, int)}, starting from the index stored in the cursor and
+	 * storing the index found there.
+	 * @param cursors May be null to search without a cursor. */
+	static int search (float[] frames, float time, int step, int[] cursors, int cursor) {
+		if (cursors == null) return binarySearch(frames, time, step);
+		int frame = binarySearch(frames, time, step, cursors[cursor]);
+		cursors[cursor] = frame;
+		return frame;
+	}
+
 	static int linearSearch (float[] values, float target, int step) {
 		for (int i = 0, last = values.length - step; i <= last; i += step)
 			if (values[i] > target) return i;
@@ -194,7 +220,8 @@ public class Animation {
 	/** The base class for timelines that use interpolation between key frame values. */
 	abstract static public class CurveTimeline implements Timeline {
 		static public final float LINEAR = 0, STEPPED = 1, BEZIER = 2;
-		static private final int BEZIER_SIZE = 10 * 2 - 1;
+		static private final float BEZIER_LOOKUP = 3;
+		static private final int BEZIER_SIZE = 10 * 2 - 1, LOOKUP_SIZE = BEZIER_SIZE - 1;
 
 		private final float[] curves; // type, x, y, ...
 
@@ -208,6 +235,12 @@ public class Animation {
 			return curves.length / BEZIER_SIZE + 1;
 		}
 
+		/** The interpolation data for each key frame except the last, {@link #getCurves()} length / ({@link #getFrameCount()} - 1)
+		 * values per key frame. The format is internal, this allows the curves to be copied to another timeline. */
+		public float[] getCurves () {
+			return curves;
+		}
+
 		/** Sets the specified key frame to linear interpolation. */
 		public void setLinear (int frameIndex) {
 			curves[frameIndex * BEZIER_SIZE] = LINEAR;
@@ -255,6 +288,61 @@ public class Animation {
 			}
 		}
 
+		/** Sets the specified key frame to Bezier interpolation, the same as {@link #setCurve(int, float, float, float, float)}
+		 * except the curve is stored as values uniformly spaced over the time between the key frames. This allows
+		 * {@link #getCurvePercent(int, float)} to look up the curve value directly instead of searching the sampled curve, at the cost
+		 * of more work when the key frame is set. Curves too steep to be stored accurately this way are set using
+		 * {@link #setCurve(int, float, float, float, float)}. */
+		public void setCurveLookup (int frameIndex, float cx1, float cy1, float cx2, float cy2) {
+			int i = frameIndex * BEZIER_SIZE;
+			float[] curves = this.curves;
+			curves[i++] = BEZIER_LOOKUP;
+			int n = LOOKUP_SIZE - 1;
+			curves[i] = 0;
+			for (int ii = 1; ii < n; ii++)
+				curves[i + ii] = bezierY(ii / (float)n, cx1, cy1, cx2, cy2);
+			curves[i + n] = 1;
+
+			// Fall back to the sampled curve if interpolating the lookup values is not accurate enough.
+			for (int ii = 0; ii < n; ii++) {
+				float y = bezierY((ii + 0.5f) / n, cx1, cy1, cx2, cy2);
+				if (Math.abs(y - (curves[i + ii] + curves[i + ii + 1]) / 2) > 0.01f) {
+					setCurve(frameIndex, cx1, cy1, cx2, cy2);
+					return;
+				}
+			}
+		}
+
+		/** Returns the curve's y for the specified x. The curve's x is monotonic for control points from 0 to 1, so bisection is
+		 * used to find the curve's t for the x. */
+		static private float bezierY (float x, float cx1, float cy1, float cx2, float cy2) {
+			float low = 0, high = 1;
+			for (int i = 0; i < 20; i++) {
+				float t = (low + high) / 2;
+				if (bezier(t, cx1, cx2) < x)
+					low = t;
+				else
+					high = t;
+			}
+			return bezier((low + high) / 2, cy1, cy2);
+		}
+
+		static private float bezier (float t, float c1, float c2) {
+			float u = 1 - t;
+			return 3 * u * u * t * c1 + 3 * u * t * t * c2 + t * t * t;
+		}
+
+		/** Applies this timeline as {@link #apply(Skeleton, float, float, Array, float, MixPose, MixDirection)}, starting the key
+		 * frame search at the key frame stored in the cursor and storing the key frame found there. Timelines are shared by all
+		 * skeletons using the same data, so the cursor is kept by the caller, eg for each {@link AnimationState.TrackEntry}. This
+		 * implementation ignores the cursor, subclasses override it to use the cursor.
+		 * @param cursors May be null to search without a cursor. The cursor must initially be 0 and only be used with this
+		 *           timeline. */
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction);
+		}
+
 		/** Returns the interpolated percentage for the specified key frame and linear percentage. */
 		public float getCurvePercent (int frameIndex, float percent) {
 			percent = MathUtils.clamp(percent, 0, 1);
@@ -264,6 +352,14 @@ public class Animation {
 			if (type == LINEAR) return percent;
 			if (type == STEPPED) return 0;
 			i++;
+			if (type == BEZIER_LOOKUP) {
+				float p = percent * (LOOKUP_SIZE - 1);
+				int index = (int)p;
+				if (index == LOOKUP_SIZE - 1) return 1;
+				i += index;
+				float y = curves[i];
+				return y + (curves[i + 1] - y) * (p - index);
+			}
 			float x = 0;
 			for (int start = i, n = i + BEZIER_SIZE - 1; i < n; i += 2) {
 				x = curves[i];
@@ -320,6 +416,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Bone bone = skeleton.bones.get(boneIndex);
 			float[] frames = this.frames;
@@ -348,7 +449,7 @@ public class Animation {
 			}
 
 			// Interpolate between the previous frame and the current frame.
-			int frame = binarySearch(frames, time, ENTRIES);
+			int frame = search(frames, time, ENTRIES, cursors, cursor);
 			float prevRotation = frames[frame + PREV_ROTATION];
 			float frameTime = frames[frame];
 			float percent = getCurvePercent((frame >> 1) - 1, 1 - (time - frameTime) / (frames[frame + PREV_TIME] - frameTime));
@@ -410,6 +511,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Bone bone = skeleton.bones.get(boneIndex);
 			float[] frames = this.frames;
@@ -432,7 +538,7 @@ public class Animation {
 				y = frames[frames.length + PREV_Y];
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				x = frames[frame + PREV_X];
 				y = frames[frame + PREV_Y];
 				float frameTime = frames[frame];
@@ -464,6 +570,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Bone bone = skeleton.bones.get(boneIndex);
 			float[] frames = this.frames;
@@ -486,7 +597,7 @@ public class Animation {
 				y = frames[frames.length + PREV_Y] * bone.data.scaleY;
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				x = frames[frame + PREV_X];
 				y = frames[frame + PREV_Y];
 				float frameTime = frames[frame];
@@ -534,6 +645,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Bone bone = skeleton.bones.get(boneIndex);
 			float[] frames = this.frames;
@@ -556,7 +672,7 @@ public class Animation {
 				y = frames[frames.length + PREV_Y];
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				x = frames[frame + PREV_X];
 				y = frames[frame + PREV_Y];
 				float frameTime = frames[frame];
@@ -621,6 +737,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Slot slot = skeleton.slots.get(slotIndex);
 			float[] frames = this.frames;
@@ -646,7 +767,7 @@ public class Animation {
 				a = frames[i + PREV_A];
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				r = frames[frame + PREV_R];
 				g = frames[frame + PREV_G];
 				b = frames[frame + PREV_B];
@@ -719,6 +840,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Slot slot = skeleton.slots.get(slotIndex);
 			float[] frames = this.frames;
@@ -749,7 +875,7 @@ public class Animation {
 				b2 = frames[i + PREV_B2];
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				r = frames[frame + PREV_R];
 				g = frames[frame + PREV_G];
 				b = frames[frame + PREV_B];
@@ -832,6 +958,12 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		/** See {@link CurveTimeline#apply(Skeleton, float, float, Array, float, MixPose, MixDirection, int[], int)}. */
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Slot slot = skeleton.slots.get(slotIndex);
 			if (direction == out && pose == setup) {
@@ -852,25 +984,36 @@ public class Animation {
 			int frameIndex;
 			if (time >= frames[frames.length - 1]) // Time is after last frame.
 				frameIndex = frames.length - 1;
-			else
-				frameIndex = binarySearch(frames, time) - 1;
+			else {
+				frameIndex = search(frames, time, 1, cursors, cursor);
+				frameIndex--;
+			}
 
 			String attachmentName = attachmentNames[frameIndex];
 			slot.setAttachment(attachmentName == null ? null : skeleton.getAttachment(slotIndex, attachmentName));
 		}
 	}
 
-	/** Changes a slot's {@link Slot#getAttachmentVertices()} to deform a {@link VertexAttachment}. */
+	/** Changes a slot's {@link Slot#getAttachmentVertices()} to deform a {@link VertexAttachment}.
+	 * <p>
+	 * Each key frame stores only the range of vertices it changes. Outside of that range the key frame has the attachment's setup
+	 * vertex positions for an unweighted attachment, or deform offsets of zero if it has weights. Only the range changed by either
+	 * key frame is interpolated. */
 	static public class DeformTimeline extends CurveTimeline {
+		/** The vertices shared by key frames that store no vertices, so their vertices are the setup pose. */
+		static public final float[] EMPTY = new float[0];
+
 		int slotIndex;
 		VertexAttachment attachment;
-		private final float[] frames; // time, ...
-		private final float[][] frameVertices;
+		final float[] frames; // time, ...
+		final float[][] frameVertices;
+		final int[] frameOffsets;
 
 		public DeformTimeline (int frameCount) {
 			super(frameCount);
 			frames = new float[frameCount];
 			frameVertices = new float[frameCount][];
+			frameOffsets = new int[frameCount];
 		}
 
 		public int getPropertyId () {
@@ -901,20 +1044,45 @@ public class Animation {
 			return frames;
 		}
 
-		/** The vertices for each key frame. */
+		/** The vertices for each key frame, starting at the key frame's {@link #getOffsets() offset}. */
 		public float[][] getVertices () {
 			return frameVertices;
 		}
 
+		/** The index of the first value in {@link #getVertices()} for each key frame. */
+		public int[] getOffsets () {
+			return frameOffsets;
+		}
+
+		/** The number of vertex positions for an unweighted attachment, or deform offsets if it has weights. */
+		public int getVertexCount () {
+			float[] vertices = attachment.getVertices();
+			return attachment.getBones() == null ? vertices.length : vertices.length / 3 * 2;
+		}
+
 		/** Sets the time in seconds and the vertices for the specified key frame.
 		 * @param vertices Vertex positions for an unweighted VertexAttachment, or deform offsets if it has weights. */
 		public void setFrame (int frameIndex, float time, float[] vertices) {
+			setFrame(frameIndex, time, vertices, 0);
+		}
+
+		/** Sets the time in seconds and a range of the vertices for the specified key frame.
+		 * @param vertices Vertex positions for an unweighted VertexAttachment, or deform offsets if it has weights.
+		 * @param offset The index of the first value in the attachment's vertices or deform offsets that is set by vertices. */
+		public void setFrame (int frameIndex, float time, float[] vertices, int offset) {
+			if (offset < 0) throw new IllegalArgumentException("offset must be >= 0: " + offset);
 			frames[frameIndex] = time;
 			frameVertices[frameIndex] = vertices;
+			frameOffsets[frameIndex] = offset;
 		}
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Slot slot = skeleton.slots.get(slotIndex);
 			Attachment slotAttachment = slot.attachment;
@@ -923,100 +1091,351 @@ public class Animation {
 			FloatArray verticesArray = slot.getAttachmentVertices();
 			if (verticesArray.size == 0) alpha = 1;
 
-			float[][] frameVertices = this.frameVertices;
-			int vertexCount = frameVertices[0].length;
+			int vertexCount = getVertexCount();
 
 			float[] frames = this.frames;
 			if (time < frames[0]) { // Time is before first frame.
-				VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-				switch (pose) {
-				case setup:
-					verticesArray.clear();
-					return;
-				case current:
-					if (alpha == 1) {
-						verticesArray.clear();
-						return;
-					}
-					float[] vertices = verticesArray.setSize(vertexCount);
-					if (vertexAttachment.getBones() == null) {
-						// Unweighted vertex positions.
-						float[] setupVertices = vertexAttachment.getVertices();
-						for (int i = 0; i < vertexCount; i++)
-							vertices[i] += (setupVertices[i] - vertices[i]) * alpha;
-					} else {
-						// Weighted deform offsets.
-						alpha = 1 - alpha;
-						for (int i = 0; i < vertexCount; i++)
-							vertices[i] *= alpha;
-					}
-				}
+				applySetup((VertexAttachment)slotAttachment, verticesArray, vertexCount, alpha, pose);
 				return;
 			}
 
 			float[] vertices = verticesArray.setSize(vertexCount);
 
+			int prevFrame, nextFrame;
+			float percent;
 			if (time >= frames[frames.length - 1]) { // Time is after last frame.
-				float[] lastVertices = frameVertices[frames.length - 1];
+				prevFrame = nextFrame = frames.length - 1;
+				percent = 0;
+			} else {
+				// Interpolate between the previous frame and the current frame.
+				nextFrame = search(frames, time, 1, cursors, cursor);
+				prevFrame = nextFrame - 1;
+				float frameTime = frames[nextFrame];
+				percent = getCurvePercent(prevFrame, 1 - (time - frameTime) / (frames[prevFrame] - frameTime));
+			}
+			float[] prevVertices = frameVertices[prevFrame], nextVertices = frameVertices[nextFrame];
+			int prevOffset = frameOffsets[prevFrame], nextOffset = frameOffsets[nextFrame];
+			float[] setupVertices = attachment.getBones() == null ? attachment.getVertices() : null;
+
+			// The range changed by either key frame.
+			int start = vertexCount, end = 0;
+			if (prevVertices.length > 0) {
+				start = prevOffset;
+				end = prevOffset + prevVertices.length;
+			}
+			if (nextVertices.length > 0) {
+				start = Math.min(start, nextOffset);
+				end = Math.max(end, nextOffset + nextVertices.length);
+			}
+			end = Math.min(end, vertexCount);
+			if (start > end) start = end;
+
+			if (alpha == 1 || pose == setup) {
+				// Outside the range, setup vertex positions or zero deform offsets.
+				if (setupVertices != null) {
+					System.arraycopy(setupVertices, 0, vertices, 0, start);
+					System.arraycopy(setupVertices, end, vertices, end, vertexCount - end);
+				} else {
+					Arrays.fill(vertices, 0, start, 0);
+					Arrays.fill(vertices, end, vertexCount, 0);
+				}
 				if (alpha == 1) {
 					// Vertex positions or deform offsets, no alpha.
-					System.arraycopy(lastVertices, 0, vertices, 0, vertexCount);
-				} else if (pose == setup) {
-					VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-					if (vertexAttachment.getBones() == null) {
-						// Unweighted vertex positions, with alpha.
-						float[] setupVertices = vertexAttachment.getVertices();
-						for (int i = 0; i < vertexCount; i++) {
-							float setup = setupVertices[i];
-							vertices[i] = setup + (lastVertices[i] - setup) * alpha;
-						}
-					} else {
-						// Weighted deform offsets, with alpha.
-						for (int i = 0; i < vertexCount; i++)
-							vertices[i] = lastVertices[i] * alpha;
+					for (int i = start; i < end; i++) {
+						float prev = value(prevVertices, prevOffset, setupVertices, i);
+						float next = value(nextVertices, nextOffset, setupVertices, i);
+						vertices[i] = prev + (next - prev) * percent;
+					}
+				} else if (setupVertices != null) {
+					// Unweighted vertex positions, with alpha.
+					for (int i = start; i < end; i++) {
+						float prev = value(prevVertices, prevOffset, setupVertices, i);
+						float next = value(nextVertices, nextOffset, setupVertices, i), setup = setupVertices[i];
+						vertices[i] = setup + (prev + (next - prev) * percent - setup) * alpha;
 					}
 				} else {
-					// Vertex positions or deform offsets, with alpha.
+					// Weighted deform offsets, with alpha.
+					for (int i = start; i < end; i++) {
+						float prev = value(prevVertices, prevOffset, null, i), next = value(nextVertices, nextOffset, null, i);
+						vertices[i] = (prev + (next - prev) * percent) * alpha;
+					}
+				}
+			} else {
+				// Vertex positions or deform offsets, with alpha.
+				for (int i = 0; i < vertexCount; i++) {
+					float prev = value(prevVertices, prevOffset, setupVertices, i);
+					float next = value(nextVertices, nextOffset, setupVertices, i);
+					vertices[i] += (prev + (next - prev) * percent - vertices[i]) * alpha;
+				}
+			}
+		}
+
+		/** Returns the value of a key frame for the specified index in the attachment's vertices or deform offsets.
+		 * @param setupVertices The setup vertex positions for an unweighted attachment, or null if it has weights. */
+		static float value (float[] vertices, int offset, float[] setupVertices, int i) {
+			int index = i - offset;
+			if (index >= 0 && index < vertices.length) return vertices[index];
+			return setupVertices == null ? 0 : setupVertices[i];
+		}
+
+		/** Mixes the slot's vertices toward the setup pose for a time before the first key frame. */
+		static void applySetup (VertexAttachment vertexAttachment, FloatArray verticesArray, int vertexCount, float alpha,
+			MixPose pose) {
+			switch (pose) {
+			case setup:
+				verticesArray.clear();
+				return;
+			case current:
+				if (alpha == 1) {
+					verticesArray.clear();
+					return;
+				}
+				float[] vertices = verticesArray.setSize(vertexCount);
+				if (vertexAttachment.getBones() == null) {
+					// Unweighted vertex positions.
+					float[] setupVertices = vertexAttachment.getVertices();
+					for (int i = 0; i < vertexCount; i++)
+						vertices[i] += (setupVertices[i] - vertices[i]) * alpha;
+				} else {
+					// Weighted deform offsets.
+					alpha = 1 - alpha;
 					for (int i = 0; i < vertexCount; i++)
-						vertices[i] += (lastVertices[i] - vertices[i]) * alpha;
+						vertices[i] *= alpha;
 				}
+			}
+		}
+	}
+
+	/** Changes a slot's {@link Slot#getAttachmentVertices()} like a {@link DeformTimeline}, storing the vertices for each key frame
+	 * as 16-bit values which are decoded when the timeline is applied.
+	 * <p>
+	 * Only the range of vertices that differ from the setup pose is stored for each key frame. The values stored are the offsets
+	 * from the setup vertex positions for an unweighted attachment, or the deform offsets for a weighted attachment, quantized to
+	 * the range of all the timeline's values. The error for each value is at most half the range divided by 65535. The key frames
+	 * are set when the timeline is created and cannot be changed. */
+	static public class CompressedDeformTimeline extends CurveTimeline {
+		final int slotIndex;
+		final VertexAttachment attachment;
+		private final float[] frames; // time, ...
+		private final int vertexCount;
+		private final int[] ranges; // offset, count, values index, ...
+		private final short[] values;
+		private final float min, scale;
+
+		/** Creates a compressed timeline with the same key frames, curves, slot and attachment as the specified timeline. */
+		public CompressedDeformTimeline (DeformTimeline timeline) {
+			super(timeline.frames.length);
+			VertexAttachment attachment = timeline.attachment;
+			if (attachment == null) throw new IllegalArgumentException("timeline must have an attachment.");
+			slotIndex = timeline.slotIndex;
+			this.attachment = attachment;
+			float[] frames = timeline.frames;
+			this.frames = frames.clone();
+			System.arraycopy(timeline.getCurves(), 0, getCurves(), 0, getCurves().length);
+
+			float[][] frameVertices = timeline.frameVertices;
+			int[] frameOffsets = timeline.frameOffsets;
+			int frameCount = frames.length, vertexCount = timeline.getVertexCount();
+			this.vertexCount = vertexCount;
+			float[] relativeTo = attachment.getBones() == null ? attachment.getVertices() : null;
+
+			// Find the range of each key frame that differs from the setup pose and the range of the values.
+			int[] ranges = new int[frameCount * 3];
+			int valueCount = 0;
+			float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+			for (int f = 0, r = 0; f < frameCount; f++, r += 3) {
+				float[] vertices = frameVertices[f];
+				int offset = frameOffsets[f], start = 0, end = vertexCount;
+				while (start < end && delta(vertices, offset, relativeTo, start) == 0)
+					start++;
+				while (end > start && delta(vertices, offset, relativeTo, end - 1) == 0)
+					end--;
+				ranges[r] = start;
+				ranges[r + 1] = end - start;
+				ranges[r + 2] = valueCount;
+				valueCount += end - start;
+				for (int i = start; i < end; i++) {
+					float value = delta(vertices, offset, relativeTo, i);
+					min = Math.min(min, value);
+					max = Math.max(max, value);
+				}
+			}
+			if (valueCount == 0) min = max = 0;
+			this.ranges = ranges;
+			this.min = min;
+			scale = (max - min) / 65535;
+
+			short[] values = new short[valueCount];
+			for (int f = 0, r = 0, v = 0; f < frameCount; f++, r += 3) {
+				float[] vertices = frameVertices[f];
+				int offset = frameOffsets[f];
+				for (int i = ranges[r], n = i + ranges[r + 1]; i < n; i++, v++)
+					values[v] = (short)(scale == 0 ? 0 : Math.round((delta(vertices, offset, relativeTo, i) - min) / scale));
+			}
+			this.values = values;
+		}
+
+		/** Returns the key frame's offset from the setup vertex position, or its deform offset if relativeTo is null. */
+		static private float delta (float[] vertices, int offset, float[] relativeTo, int i) {
+			float value = DeformTimeline.value(vertices, offset, relativeTo, i);
+			return relativeTo == null ? value : value - relativeTo[i];
+		}
+
+		public int getPropertyId () {
+			return (TimelineType.deform.ordinal() << 27) + attachment.getId() + slotIndex;
+		}
+
+		/** The index of the slot in {@link Skeleton#getSlots()} that will be changed. */
+		public int getSlotIndex () {
+			return slotIndex;
+		}
+
+		/** The attachment that will be deformed. */
+		public VertexAttachment getAttachment () {
+			return attachment;
+		}
+
+		/** The time in seconds for each key frame. */
+		public float[] getFrames () {
+			return frames;
+		}
+
+		/** The number of vertex positions for an unweighted attachment, or deform offsets if it has weights. */
+		public int getVertexCount () {
+			return vertexCount;
+		}
+
+		/** The index of the first vertex position or deform offset stored for the specified key frame. */
+		public int getOffset (int frameIndex) {
+			return ranges[frameIndex * 3];
+		}
+
+		/** The number of vertex positions or deform offsets stored for the specified key frame, starting at
+		 * {@link #getOffset(int)}. The other values are the setup vertex positions or deform offsets of zero. */
+		public int getCount (int frameIndex) {
+			return ranges[frameIndex * 3 + 1];
+		}
+
+		/** Decodes all the vertex positions or deform offsets for the specified key frame.
+		 * @param vertices Must have at least {@link #getVertexCount()} length. */
+		public void getVertices (int frameIndex, float[] vertices) {
+			float[] relativeTo = attachment.getBones() == null ? attachment.getVertices() : null;
+			for (int i = 0; i < vertexCount; i++)
+				vertices[i] = value(frameIndex, i, relativeTo);
+		}
+
+		/** The number of 16-bit values stored for all key frames. */
+		public int getValueCount () {
+			return values.length;
+		}
+
+		/** Returns the decoded value for the specified key frame and vertex index. */
+		private float value (int frame, int i, float[] relativeTo) {
+			int[] ranges = this.ranges;
+			int r = frame * 3, start = ranges[r];
+			float offset = 0;
+			if (i >= start && i < start + ranges[r + 1]) offset = min + (values[ranges[r + 2] + i - start] & 0xffff) * scale;
+			return relativeTo == null ? offset : relativeTo[i] + offset;
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
+
+			Slot slot = skeleton.slots.get(slotIndex);
+			Attachment slotAttachment = slot.attachment;
+			if (!(slotAttachment instanceof VertexAttachment) || !((VertexAttachment)slotAttachment).applyDeform(attachment)) return;
+
+			FloatArray verticesArray = slot.getAttachmentVertices();
+			if (verticesArray.size == 0) alpha = 1;
+
+			int vertexCount = this.vertexCount;
+
+			float[] frames = this.frames;
+			if (time < frames[0]) { // Time is before first frame.
+				DeformTimeline.applySetup((VertexAttachment)slotAttachment, verticesArray, vertexCount, alpha, pose);
 				return;
 			}
 
-			// Interpolate between the previous frame and the current frame.
-			int frame = binarySearch(frames, time);
-			float[] prevVertices = frameVertices[frame - 1];
-			float[] nextVertices = frameVertices[frame];
-			float frameTime = frames[frame];
-			float percent = getCurvePercent(frame - 1, 1 - (time - frameTime) / (frames[frame - 1] - frameTime));
+			float[] vertices = verticesArray.setSize(vertexCount);
 
-			if (alpha == 1) {
-				// Vertex positions or deform offsets, no alpha.
-				for (int i = 0; i < vertexCount; i++) {
-					float prev = prevVertices[i];
-					vertices[i] = prev + (nextVertices[i] - prev) * percent;
+			int prev, next;
+			float percent;
+			if (time >= frames[frames.length - 1]) { // Time is after last frame.
+				prev = next = frames.length - 1;
+				percent = 0;
+			} else {
+				// Interpolate between the previous frame and the current frame.
+				next = search(frames, time, 1, cursors, cursor);
+				prev = next - 1;
+				float frameTime = frames[next];
+				percent = getCurvePercent(prev, 1 - (time - frameTime) / (frames[prev] - frameTime));
+			}
+			float[] setupVertices = attachment.getBones() == null ? attachment.getVertices() : null;
+
+			// The range stored by either key frame.
+			int[] ranges = this.ranges;
+			int start = vertexCount, end = 0;
+			if (ranges[prev * 3 + 1] > 0) {
+				start = ranges[prev * 3];
+				end = start + ranges[prev * 3 + 1];
+			}
+			if (ranges[next * 3 + 1] > 0) {
+				start = Math.min(start, ranges[next * 3]);
+				end = Math.max(end, ranges[next * 3] + ranges[next * 3 + 1]);
+			}
+			if (start > end) start = end;
+
+			if (alpha == 1 || pose == setup) {
+				// Outside the range, setup vertex positions or zero deform offsets.
+				if (setupVertices != null) {
+					System.arraycopy(setupVertices, 0, vertices, 0, start);
+					System.arraycopy(setupVertices, end, vertices, end, vertexCount - end);
+				} else {
+					Arrays.fill(vertices, 0, start, 0);
+					Arrays.fill(vertices, end, vertexCount, 0);
 				}
-			} else if (pose == setup) {
-				VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-				if (vertexAttachment.getBones() == null) {
+				if (alpha == 1) {
+					// Vertex positions or deform offsets, no alpha.
+					for (int i = start; i < end; i++) {
+						float value = value(prev, i, setupVertices);
+						vertices[i] = value + (value(next, i, setupVertices) - value) * percent;
+					}
+				} else if (setupVertices != null) {
 					// Unweighted vertex positions, with alpha.
-					float[] setupVertices = vertexAttachment.getVertices();
-					for (int i = 0; i < vertexCount; i++) {
-						float prev = prevVertices[i], setup = setupVertices[i];
-						vertices[i] = setup + (prev + (nextVertices[i] - prev) * percent - setup) * alpha;
+					for (int i = start; i < end; i++) {
+						float value = value(prev, i, setupVertices), setup = setupVertices[i];
+						vertices[i] = setup + (value + (value(next, i, setupVertices) - value) * percent - setup) * alpha;
 					}
 				} else {
 					// Weighted deform offsets, with alpha.
-					for (int i = 0; i < vertexCount; i++) {
-						float prev = prevVertices[i];
-						vertices[i] = (prev + (nextVertices[i] - prev) * percent) * alpha;
+					for (int i = start; i < end; i++) {
+						float value = value(prev, i, null);
+						vertices[i] = (value + (value(next, i, null) - value) * percent) * alpha;
 					}
 				}
 			} else {
+				// Outside the range, mix toward the setup vertex positions or zero deform offsets.
+				if (setupVertices != null) {
+					for (int i = 0; i < start; i++)
+						vertices[i] += (setupVertices[i] - vertices[i]) * alpha;
+					for (int i = end; i < vertexCount; i++)
+						vertices[i] += (setupVertices[i] - vertices[i]) * alpha;
+				} else {
+					float keep = 1 - alpha;
+					for (int i = 0; i < start; i++)
+						vertices[i] *= keep;
+					for (int i = end; i < vertexCount; i++)
+						vertices[i] *= keep;
+				}
 				// Vertex positions or deform offsets, with alpha.
-				for (int i = 0; i < vertexCount; i++) {
-					float prev = prevVertices[i];
-					vertices[i] += (prev + (nextVertices[i] - prev) * percent - vertices[i]) * alpha;
+				for (int i = start; i < end; i++) {
+					float value = value(prev, i, setupVertices);
+					vertices[i] += (value + (value(next, i, setupVertices) - value) * percent - vertices[i]) * alpha;
 				}
 			}
 		}
@@ -1127,6 +1546,12 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		/** See {@link CurveTimeline#apply(Skeleton, float, float, Array, float, MixPose, MixDirection, int[], int)}. */
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			Array<Slot> drawOrder = skeleton.drawOrder;
 			Array<Slot> slots = skeleton.slots;
@@ -1144,8 +1569,10 @@ public class Animation {
 			int frame;
 			if (time >= frames[frames.length - 1]) // Time is after last frame.
 				frame = frames.length - 1;
-			else
-				frame = binarySearch(frames, time) - 1;
+			else {
+				frame = search(frames, time, 1, cursors, cursor);
+				frame--;
+			}
 
 			int[] drawOrderToSetupIndex = drawOrders[frame];
 			if (drawOrderToSetupIndex == null)
@@ -1200,6 +1627,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			IkConstraint constraint = skeleton.ikConstraints.get(ikConstraintIndex);
 			float[] frames = this.frames;
@@ -1229,7 +1661,7 @@ public class Animation {
 			}
 
 			// Interpolate between the previous frame and the current frame.
-			int frame = binarySearch(frames, time, ENTRIES);
+			int frame = search(frames, time, ENTRIES, cursors, cursor);
 			float mix = frames[frame + PREV_MIX];
 			float frameTime = frames[frame];
 			float percent = getCurvePercent(frame / ENTRIES - 1, 1 - (time - frameTime) / (frames[frame + PREV_TIME] - frameTime));
@@ -1290,6 +1722,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			TransformConstraint constraint = skeleton.transformConstraints.get(transformConstraintIndex);
 			float[] frames = this.frames;
@@ -1320,7 +1757,7 @@ public class Animation {
 				shear = frames[i + PREV_SHEAR];
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				rotate = frames[frame + PREV_ROTATE];
 				translate = frames[frame + PREV_TRANSLATE];
 				scale = frames[frame + PREV_SCALE];
@@ -1392,6 +1829,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			PathConstraint constraint = skeleton.pathConstraints.get(pathConstraintIndex);
 			float[] frames = this.frames;
@@ -1411,7 +1853,7 @@ public class Animation {
 				position = frames[frames.length + PREV_VALUE];
 			else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				position = frames[frame + PREV_VALUE];
 				float frameTime = frames[frame];
 				float percent = getCurvePercent(frame / ENTRIES - 1,
@@ -1438,6 +1880,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			PathConstraint constraint = skeleton.pathConstraints.get(pathConstraintIndex);
 			float[] frames = this.frames;
@@ -1457,7 +1904,7 @@ public class Animation {
 				spacing = frames[frames.length + PREV_VALUE];
 			else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				spacing = frames[frame + PREV_VALUE];
 				float frameTime = frames[frame];
 				float percent = getCurvePercent(frame / ENTRIES - 1,
@@ -1517,6 +1964,11 @@ public class Animation {
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
 			MixDirection direction) {
+			apply(skeleton, lastTime, time, events, alpha, pose, direction, null, 0);
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixPose pose,
+			MixDirection direction, int[] cursors, int cursor) {
 
 			PathConstraint constraint = skeleton.pathConstraints.get(pathConstraintIndex);
 			float[] frames = this.frames;
@@ -1539,7 +1991,7 @@ public class Animation {
 				translate = frames[frames.length + PREV_TRANSLATE];
 			} else {
 				// Interpolate between the previous frame and the current frame.
-				int frame = binarySearch(frames, time, ENTRIES);
+				int frame = search(frames, time, ENTRIES, cursors, cursor);
 				rotate = frames[frame + PREV_ROTATE];
 				translate = frames[frame + PREV_TRANSLATE];
 				float frameTime = frames[frame];
@@ -39,6 +39,7 @@ import com.badlogic.gdx.utils.IntSet;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.esotericsoftware.spine.Animation.AttachmentTimeline;
+import com.esotericsoftware.spine.Animation.CurveTimeline;
 import com.esotericsoftware.spine.Animation.DrawOrderTimeline;
 import com.esotericsoftware.spine.Animation.MixDirection;
 import com.esotericsoftware.spine.Animation.MixPose;
@@ -210,9 +211,12 @@ public class AnimationState {
 			float animationLast = current.animationLast, animationTime = current.getAnimationTime();
 			int timelineCount = current.animation.timelines.size;
 			Object[] timelines = current.animation.timelines.items;
+			int[] timelineCursors = current.getTimelineCursors();
 			if (mix == 1) {
-				for (int ii = 0; ii < timelineCount; ii++)
-					((Timeline)timelines[ii]).apply(skeleton, animationLast, animationTime, events, 1, MixPose.setup, MixDirection.in);
+				for (int ii = 0; ii < timelineCount; ii++) {
+					applyTimeline((Timeline)timelines[ii], skeleton, animationLast, animationTime, events, 1, MixPose.setup,
+						MixDirection.in, timelineCursors, ii);
+				}
 			} else {
 				int[] timelineData = current.timelineData.items;
 
@@ -223,10 +227,13 @@ public class AnimationState {
 				for (int ii = 0; ii < timelineCount; ii++) {
 					Timeline timeline = (Timeline)timelines[ii];
 					MixPose pose = timelineData[ii] >= FIRST ? MixPose.setup : currentPose;
-					if (timeline instanceof RotateTimeline)
-						applyRotateTimeline(timeline, skeleton, animationTime, mix, pose, timelinesRotation, ii << 1, firstFrame);
-					else
-						timeline.apply(skeleton, animationLast, animationTime, events, mix, pose, MixDirection.in);
+					if (timeline instanceof RotateTimeline) {
+						applyRotateTimeline(timeline, skeleton, animationTime, mix, pose, timelinesRotation, ii << 1, firstFrame,
+							timelineCursors, ii);
+					} else {
+						applyTimeline(timeline, skeleton, animationLast, animationTime, events, mix, pose, MixDirection.in,
+							timelineCursors, ii);
+					}
 				}
 			}
 			queueEvents(current, animationTime);
@@ -259,6 +266,7 @@ public class AnimationState {
 		Object[] timelines = from.animation.timelines.items;
 		int[] timelineData = from.timelineData.items;
 		Object[] timelineDipMix = from.timelineDipMix.items;
+		int[] timelineCursors = from.getTimelineCursors();
 
 		boolean firstFrame = from.timelinesRotation.size == 0;
 		if (firstFrame) from.timelinesRotation.setSize(timelineCount << 1);
@@ -290,10 +298,13 @@ public class AnimationState {
 				alpha = alphaDip * Math.max(0, 1 - dipMix.mixTime / dipMix.mixDuration);
 			}
 			from.totalAlpha += alpha;
-			if (timeline instanceof RotateTimeline)
-				applyRotateTimeline(timeline, skeleton, animationTime, alpha, pose, timelinesRotation, i << 1, firstFrame);
-			else
-				timeline.apply(skeleton, animationLast, animationTime, events, alpha, pose, MixDirection.out);
+			if (timeline instanceof RotateTimeline) {
+				applyRotateTimeline(timeline, skeleton, animationTime, alpha, pose, timelinesRotation, i << 1, firstFrame,
+					timelineCursors, i);
+			} else {
+				applyTimeline(timeline, skeleton, animationLast, animationTime, events, alpha, pose, MixDirection.out,
+					timelineCursors, i);
+			}
 		}
 
 		if (to.mixDuration > 0) queueEvents(from, animationTime);
@@ -304,13 +315,26 @@ public class AnimationState {
 		return mix;
 	}
 
+	private void applyTimeline (Timeline timeline, Skeleton skeleton, float lastTime, float time, Array<Event> events,
+		float alpha, MixPose pose, MixDirection direction, int[] timelineCursors, int i) {
+		// Timelines are checked by class, as checking an interface for each timeline is slower.
+		if (timeline instanceof CurveTimeline)
+			((CurveTimeline)timeline).apply(skeleton, lastTime, time, events, alpha, pose, direction, timelineCursors, i);
+		else if (timeline instanceof AttachmentTimeline)
+			((AttachmentTimeline)timeline).apply(skeleton, lastTime, time, events, alpha, pose, direction, timelineCursors, i);
+		else if (timeline instanceof DrawOrderTimeline)
+			((DrawOrderTimeline)timeline).apply(skeleton, lastTime, time, events, alpha, pose, direction, timelineCursors, i);
+		else
+			timeline.apply(skeleton, lastTime, time, events, alpha, pose, direction);
+	}
+
 	private void applyRotateTimeline (Timeline timeline, Skeleton skeleton, float time, float alpha, MixPose pose,
-		float[] timelinesRotation, int i, boolean firstFrame) {
+		float[] timelinesRotation, int i, boolean firstFrame, int[] timelineCursors, int cursor) {
 
 		if (firstFrame) timelinesRotation[i] = 0;
 
 		if (alpha == 1) {
-			timeline.apply(skeleton, 0, time, null, 1, pose, MixDirection.in);
+			((RotateTimeline)timeline).apply(skeleton, 0, time, null, 1, pose, MixDirection.in, timelineCursors, cursor);
 			return;
 		}
 
@@ -327,7 +351,7 @@ public class AnimationState {
 			r2 = bone.data.rotation + frames[frames.length + PREV_ROTATION];
 		else {
 			// Interpolate between the previous frame and the current frame.
-			int frame = Animation.binarySearch(frames, time, ENTRIES);
+			int frame = Animation.search(frames, time, ENTRIES, timelineCursors, cursor);
 			float prevRotation = frames[frame + PREV_ROTATION];
 			float frameTime = frames[frame];
 			float percent = rotateTimeline.getCurvePercent((frame >> 1) - 1,
@@ -678,6 +702,28 @@ public class AnimationState {
 		queue.clear();
 	}
 
+	/** When true, listener notifications are queued instead of being delivered by {@link #update(float)},
+	 * {@link #apply(Skeleton)} and the other methods which normally deliver them. Queued notifications are delivered by
+	 * {@link #drainListenerNotifications()}. This allows the animation state to be updated on a different thread than the one
+	 * the listeners expect. Defaults to false. */
+	public boolean getDeferListenerNotifications () {
+		return queue.drainDeferred;
+	}
+
+	public void setDeferListenerNotifications (boolean deferListenerNotifications) {
+		queue.drainDeferred = deferListenerNotifications;
+	}
+
+	/** Delivers the listener notifications queued while {@link #getDeferListenerNotifications()} was true, in the order they
+	 * occurred. Notifications queued by listeners during delivery are also delivered. */
+	public void drainListenerNotifications () {
+		EventQueue queue = this.queue;
+		boolean drainDeferred = queue.drainDeferred;
+		queue.drainDeferred = false;
+		queue.drain();
+		queue.drainDeferred = drainDeferred;
+	}
+
 	/** Multiplier for the delta time when the animation state is updated, causing time for all animations to play slower or
 	 * faster. Defaults to 1.
 	 * <p>
@@ -733,6 +779,7 @@ public class AnimationState {
 		final IntArray timelineData = new IntArray();
 		final Array<TrackEntry> timelineDipMix = new Array();
 		final FloatArray timelinesRotation = new FloatArray();
+		final IntArray timelineCursors = new IntArray();
 
 		public void reset () {
 			next = null;
@@ -742,6 +789,18 @@ public class AnimationState {
 			timelineData.clear();
 			timelineDipMix.clear();
 			timelinesRotation.clear();
+			timelineCursors.clear();
+		}
+
+		/** Returns the key frame search cursor for each timeline, see
+		 * {@link CurveTimeline#apply(Skeleton, float, float, Array, float, MixPose, MixDirection, int[], int)}. */
+		int[] getTimelineCursors () {
+			int timelineCount = animation.timelines.size;
+			if (timelineCursors.size == timelineCount) return timelineCursors.items;
+			int[] cursors = timelineCursors.setSize(timelineCount);
+			for (int i = 0; i < timelineCount; i++)
+				cursors[i] = 0;
+			return cursors;
 		}
 
 		/** @param to May be null. */
@@ -1033,101 +1092,134 @@ public class AnimationState {
 		}
 	}
 
+	/** Queues listener notifications in a ring buffer of parallel arrays, so adding and draining notifications does not allocate
+	 * once the buffer is large enough. */
 	class EventQueue {
-		private final Array objects = new Array();
-		boolean drainDisabled;
+		static private final int START = 0, INTERRUPT = 1, END = 2, DISPOSE = 3, COMPLETE = 4, EVENT = 5;
+
+		private int[] types = new int[32];
+		private TrackEntry[] entries = new TrackEntry[32];
+		private Event[] events = new Event[32];
+		private int head, size;
+		boolean drainDisabled, drainDeferred;
 
 		public void start (TrackEntry entry) {
-			objects.add(EventType.start);
-			objects.add(entry);
+			add(START, entry, null);
 			animationsChanged = true;
 		}
 
 		public void interrupt (TrackEntry entry) {
-			objects.add(EventType.interrupt);
-			objects.add(entry);
+			add(INTERRUPT, entry, null);
 		}
 
 		public void end (TrackEntry entry) {
-			objects.add(EventType.end);
-			objects.add(entry);
+			add(END, entry, null);
 			animationsChanged = true;
 		}
 
 		public void dispose (TrackEntry entry) {
-			objects.add(EventType.dispose);
-			objects.add(entry);
+			add(DISPOSE, entry, null);
 		}
 
 		public void complete (TrackEntry entry) {
-			objects.add(EventType.complete);
-			objects.add(entry);
+			add(COMPLETE, entry, null);
 		}
 
 		public void event (TrackEntry entry, Event event) {
-			objects.add(EventType.event);
-			objects.add(entry);
-			objects.add(event);
+			add(EVENT, entry, event);
+		}
+
+		private void add (int type, TrackEntry entry, Event event) {
+			if (size == types.length) resize(size << 1);
+			int index = (head + size) & (types.length - 1);
+			types[index] = type;
+			entries[index] = entry;
+			events[index] = event;
+			size++;
+		}
+
+		private void resize (int capacity) {
+			int[] types = new int[capacity];
+			TrackEntry[] entries = new TrackEntry[capacity];
+			Event[] events = new Event[capacity];
+			int tail = Math.min(size, this.types.length - head);
+			System.arraycopy(this.types, head, types, 0, tail);
+			System.arraycopy(this.entries, head, entries, 0, tail);
+			System.arraycopy(this.events, head, events, 0, tail);
+			System.arraycopy(this.types, 0, types, tail, size - tail);
+			System.arraycopy(this.entries, 0, entries, tail, size - tail);
+			System.arraycopy(this.events, 0, events, tail, size - tail);
+			this.types = types;
+			this.entries = entries;
+			this.events = events;
+			head = 0;
 		}
 
 		public void drain () {
-			if (drainDisabled) return; // Not reentrant.
+			if (drainDisabled || drainDeferred) return; // Not reentrant.
 			drainDisabled = true;
 
-			Array objects = this.objects;
 			Array<AnimationStateListener> listeners = AnimationState.this.listeners;
-			for (int i = 0; i < objects.size; i += 2) {
-				EventType type = (EventType)objects.get(i);
-				TrackEntry entry = (TrackEntry)objects.get(i + 1);
+			while (size > 0) {
+				// Listeners may add notifications, which can resize the buffer, so the fields are used directly.
+				int index = head, type = types[index];
+				TrackEntry entry = entries[index];
+				Event event = events[index];
+				entries[index] = null;
+				events[index] = null;
+				head = (index + 1) & (types.length - 1);
+				size--;
 				switch (type) {
-				case start:
+				case START:
 					if (entry.listener != null) entry.listener.start(entry);
 					for (int ii = 0; ii < listeners.size; ii++)
 						listeners.get(ii).start(entry);
 					break;
-				case interrupt:
+				case INTERRUPT:
 					if (entry.listener != null) entry.listener.interrupt(entry);
 					for (int ii = 0; ii < listeners.size; ii++)
 						listeners.get(ii).interrupt(entry);
 					break;
-				case end:
+				case END:
 					if (entry.listener != null) entry.listener.end(entry);
 					for (int ii = 0; ii < listeners.size; ii++)
 						listeners.get(ii).end(entry);
 					// Fall through.
-				case dispose:
+				case DISPOSE:
 					if (entry.listener != null) entry.listener.dispose(entry);
 					for (int ii = 0; ii < listeners.size; ii++)
 						listeners.get(ii).dispose(entry);
 					trackEntryPool.free(entry);
 					break;
-				case complete:
+				case COMPLETE:
 					if (entry.listener != null) entry.listener.complete(entry);
 					for (int ii = 0; ii < listeners.size; ii++)
 						listeners.get(ii).complete(entry);
 					break;
-				case event:
-					Event event = (Event)objects.get(i++ + 2);
+				case EVENT:
 					if (entry.listener != null) entry.listener.event(entry, event);
 					for (int ii = 0; ii < listeners.size; ii++)
 						listeners.get(ii).event(entry, event);
 					break;
 				}
 			}
-			clear();
+			head = 0;
 
 			drainDisabled = false;
 		}
 
 		public void clear () {
-			objects.clear();
+			TrackEntry[] entries = this.entries;
+			Event[] events = this.events;
+			for (int i = 0, n = entries.length; i < n; i++) {
+				entries[i] = null;
+				events[i] = null;
+			}
+			head = 0;
+			size = 0;
 		}
 	}
 
-	static private enum EventType {
-		start, interrupt, end, dispose, complete, event
-	}
-
 	/** The interface which can be implemented to receive TrackEntry events.
 	 * <p>
 	 * See TrackEntry {@link TrackEntry#setListener(AnimationStateListener)} and AnimationState
@@ -55,6 +55,11 @@ public class Bone implements Updatable {
 	float c, d, worldY;
 
 	boolean sorted;
+	/** True if the bone and its ancestors are not constrained, so {@link Skeleton#setDirtyTracking(boolean) dirty tracking} can
+	 * skip computing its world transform. */
+	boolean tracked;
+	/** True if the world transform was computed by the last {@link Skeleton#updateWorldTransform()} using dirty tracking. */
+	boolean changed;
 
 	/** @param parent May be null. */
 	public Bone (BoneData data, Skeleton skeleton, Bone parent) {
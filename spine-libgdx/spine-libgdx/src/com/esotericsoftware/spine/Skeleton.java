@@ -63,6 +63,10 @@ public class Skeleton {
 	float time;
 	boolean flipX, flipY;
 	float x, y;
+	boolean dirtyTracking, trackedValid, trackedFlipX, trackedFlipY;
+	float trackedX, trackedY;
+	int updateCacheBones, updatedBones;
+	int attachmentChanges;
 
 	public Skeleton (SkeletonData data) {
 		if (data == null) throw new IllegalArgumentException("data cannot be null.");
@@ -152,6 +156,7 @@ public class Skeleton {
 		time = skeleton.time;
 		flipX = skeleton.flipX;
 		flipY = skeleton.flipY;
+		dirtyTracking = skeleton.dirtyTracking;
 
 		updateCache();
 	}
@@ -162,6 +167,8 @@ public class Skeleton {
 		Array<Updatable> updateCache = this.updateCache;
 		updateCache.clear();
 		updateCacheReset.clear();
+		updateCacheBones = 0;
+		trackedValid = false;
 
 		Array<Bone> bones = this.bones;
 		for (int i = 0, n = bones.size; i < n; i++)
@@ -199,6 +206,25 @@ public class Skeleton {
 
 		for (int i = 0, n = bones.size; i < n; i++)
 			sortBone(bones.get(i));
+
+		// Bones are tracked unless they or an ancestor are constrained, as constraints modify the world transform.
+		for (int i = 0, n = bones.size; i < n; i++)
+			bones.get(i).tracked = true;
+		for (int i = 0; i < ikCount; i++)
+			untrack(ikConstraints.get(i).bones);
+		for (int i = 0; i < transformCount; i++)
+			untrack(transformConstraints.get(i).bones);
+		for (int i = 0; i < pathCount; i++)
+			untrack(pathConstraints.get(i).bones);
+	}
+
+	private void untrack (Array<Bone> bones) {
+		for (int i = 0, n = bones.size; i < n; i++) {
+			Bone bone = bones.get(i);
+			if (!bone.tracked) continue;
+			bone.tracked = false;
+			untrack(bone.children);
+		}
 	}
 
 	private void sortIkConstraint (IkConstraint constraint) {
@@ -297,6 +323,7 @@ public class Skeleton {
 		if (parent != null) sortBone(parent);
 		bone.sorted = true;
 		updateCache.add(bone);
+		updateCacheBones++;
 	}
 
 	private void sortReset (Array<Bone> bones) {
@@ -327,9 +354,43 @@ public class Skeleton {
 			bone.ashearY = bone.shearY;
 			bone.appliedValid = true;
 		}
-		Array<Updatable> updateCache = this.updateCache;
-		for (int i = 0, n = updateCache.size; i < n; i++)
-			updateCache.get(i).update();
+		if (dirtyTracking)
+			updateTracked();
+		else {
+			Array<Updatable> updateCache = this.updateCache;
+			for (int i = 0, n = updateCache.size; i < n; i++)
+				updateCache.get(i).update();
+			updatedBones = updateCacheBones;
+		}
+	}
+
+	/** Updates the update cache, skipping tracked bones whose local transform matches the applied transform that was used to
+	 * compute the world transform and whose parent was also skipped. Constraints are always applied. */
+	private void updateTracked () {
+		boolean all = !trackedValid || x != trackedX || y != trackedY || flipX != trackedFlipX || flipY != trackedFlipY;
+		trackedValid = true;
+		trackedX = x;
+		trackedY = y;
+		trackedFlipX = flipX;
+		trackedFlipY = flipY;
+		int updated = 0;
+		Object[] updateCache = this.updateCache.items;
+		for (int i = 0, n = this.updateCache.size; i < n; i++) {
+			Updatable updatable = (Updatable)updateCache[i];
+			if (updatable instanceof Bone) {
+				Bone bone = (Bone)updatable;
+				if (!all && bone.tracked && bone.appliedValid && (bone.parent == null || !bone.parent.changed) && bone.x == bone.ax
+					&& bone.y == bone.ay && bone.rotation == bone.arotation && bone.scaleX == bone.ascaleX
+					&& bone.scaleY == bone.ascaleY && bone.shearX == bone.ashearX && bone.shearY == bone.ashearY) {
+					bone.changed = false;
+					continue;
+				}
+				bone.changed = true;
+				updated++;
+			}
+			updatable.update();
+		}
+		updatedBones = updated;
 	}
 	
 	/** Updates the world transform for each bone and applies all constraints. The 
@@ -386,6 +447,8 @@ public class Skeleton {
 			Updatable updatable = updateCache.get(i);
 			if (updatable != rootBone) updatable.update();
 		}
+		updatedBones = updateCacheBones;
+		trackedValid = false;
 	}
 
 	/** Sets the bones, constraints, slots, and draw order to their setup pose values. */
@@ -733,6 +796,41 @@ public class Skeleton {
 		this.y = y;
 	}
 
+	/** If true, {@link #updateWorldTransform()} only computes the world transform of bones whose local transform or parent
+	 * changed since the last update. Default is false.
+	 * <p>
+	 * Constraints are not tracked: every constraint is applied each update, and bones that are constrained or have a constrained
+	 * ancestor are always computed, so only unconstrained bones can be skipped.
+	 * <p>
+	 * The bone setters do not mark bones as changed. Instead, each update compares every tracked bone's local transform to the
+	 * applied transform used for its last computation, so bones modified by timelines, setters or directly are all found, but
+	 * the comparison visits every bone. If a bone's world transform is modified by application code,
+	 * {@link Bone#setAppliedValid(boolean)} must be set to false so the bone is computed. */
+	public boolean getDirtyTracking () {
+		return dirtyTracking;
+	}
+
+	public void setDirtyTracking (boolean dirtyTracking) {
+		this.dirtyTracking = dirtyTracking;
+		trackedValid = false;
+	}
+
+	/** The number of bones whose world transform was computed by the last {@link #updateWorldTransform()}, for profiling
+	 * {@link #setDirtyTracking(boolean) dirty tracking}. Bones computed by constraints are not included. */
+	public int getUpdatedBoneCount () {
+		return updatedBones;
+	}
+
+	/** Copies the local, applied and world transforms of the bones to the pose, so they are available in contiguous arrays for
+	 * code that reads all bones, such as skinning. The pose is not updated by {@link #updateWorldTransform()}, this must be
+	 * called again after the bones change.
+	 * @param pose Must have been created from this skeleton's {@link SkeletonData}. */
+	public void getPose (SkeletonPose pose) {
+		if (pose == null) throw new IllegalArgumentException("pose cannot be null.");
+		if (pose.boneCount != bones.size) throw new IllegalArgumentException("pose does not match the skeleton.");
+		pose.set(this);
+	}
+
 	/** Returns the skeleton's time. This can be used for tracking, such as with Slot {@link Slot#getAttachmentTime()}.
 	 * <p>
 	 * See {@link #update(float)}. */
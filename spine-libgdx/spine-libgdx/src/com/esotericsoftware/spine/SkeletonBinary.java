@@ -30,14 +30,14 @@
 
 package com.esotericsoftware.spine;
 
-import java.io.EOFException;
-import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.DataInput;
 import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.SerializationException;
@@ -79,7 +79,10 @@ import com.esotericsoftware.spine.attachments.VertexAttachment;
  * <p>
  * See <a href="http://esotericsoftware.com/spine-binary-format">Spine binary format</a> and
  * <a href="http://esotericsoftware.com/spine-loading-skeleton-data#JSON-and-binary-data">JSON and binary data</a> in the Spine
- * Runtimes Guide. */
+ * Runtimes Guide.
+ * <p>
+ * Skeleton data can be read by multiple threads at the same time if the attachment loader is thread safe and the settings are
+ * not changed while reading. {@link AtlasAttachmentLoader} is thread safe. */
 public class SkeletonBinary {
 	static public final int BONE_ROTATE = 0;
 	static public final int BONE_TRANSLATE = 1;
@@ -98,11 +101,9 @@ public class SkeletonBinary {
 	static public final int CURVE_STEPPED = 1;
 	static public final int CURVE_BEZIER = 2;
 
-	static private final Color tempColor1 = new Color(), tempColor2 = new Color();
-
 	private final AttachmentLoader attachmentLoader;
 	private float scale = 1;
-	private Array<LinkedMesh> linkedMeshes = new Array();
+	private boolean curveLookup;
 
 	public SkeletonBinary (TextureAtlas atlas) {
 		attachmentLoader = new AtlasAttachmentLoader(atlas);
@@ -125,51 +126,35 @@ public class SkeletonBinary {
 		this.scale = scale;
 	}
 
+	/** If true, Bezier curves are stored for constant time evaluation using
+	 * {@link CurveTimeline#setCurveLookup(int, float, float, float, float)}, which is faster to apply but slower to load.
+	 * Defaults to false. */
+	public boolean getCurveLookup () {
+		return curveLookup;
+	}
+
+	public void setCurveLookup (boolean curveLookup) {
+		this.curveLookup = curveLookup;
+	}
+
 	public SkeletonData readSkeletonData (FileHandle file) {
 		if (file == null) throw new IllegalArgumentException("file cannot be null.");
+		SkeletonData skeletonData = readSkeletonData(ByteBuffer.wrap(file.readBytes()));
+		skeletonData.name = file.nameWithoutExtension();
+		return skeletonData;
+	}
+
+	/** Reads skeleton data from the buffer's position, without changing the buffer's position or byte order. The buffer may be a
+	 * direct or memory mapped buffer, though decoding them is slower than a heap buffer, so mapping a skeleton file is not faster
+	 * than {@link #readSkeletonData(FileHandle)}. The skeleton data's name is not set. */
+	public SkeletonData readSkeletonData (ByteBuffer buffer) {
+		if (buffer == null) throw new IllegalArgumentException("buffer cannot be null.");
 
 		float scale = this.scale;
 
 		SkeletonData skeletonData = new SkeletonData();
-		skeletonData.name = file.nameWithoutExtension();
-
-		DataInput input = new DataInput(file.read(512)) {
-			private char[] chars = new char[32];
 
-			public String readString () throws IOException {
-				int byteCount = readInt(true);
-				switch (byteCount) {
-				case 0:
-					return null;
-				case 1:
-					return "";
-				}
-				byteCount--;
-				if (chars.length < byteCount) chars = new char[byteCount];
-				char[] chars = this.chars;
-				int charCount = 0;
-				for (int i = 0; i < byteCount;) {
-					int b = read();
-					switch (b >> 4) {
-					case -1:
-						throw new EOFException();
-					case 12:
-					case 13:
-						chars[charCount++] = (char)((b & 0x1F) << 6 | read() & 0x3F);
-						i += 2;
-						break;
-					case 14:
-						chars[charCount++] = (char)((b & 0x0F) << 12 | (read() & 0x3F) << 6 | read() & 0x3F);
-						i += 3;
-						break;
-					default:
-						chars[charCount++] = (char)b;
-						i++;
-					}
-				}
-				return new String(chars, 0, charCount);
-			}
-		};
+		SkeletonInput input = new SkeletonInput(buffer);
 		try {
 			skeletonData.hash = input.readString();
 			if (skeletonData.hash.isEmpty()) skeletonData.hash = null;
@@ -285,6 +270,7 @@ public class SkeletonBinary {
 				skeletonData.skins.add(readSkin(input, skeletonData, input.readString(), nonessential));
 
 			// Linked meshes.
+			Array<LinkedMesh> linkedMeshes = input.linkedMeshes;
 			for (int i = 0, n = linkedMeshes.size; i < n; i++) {
 				LinkedMesh linkedMesh = linkedMeshes.get(i);
 				Skin skin = linkedMesh.skin == null ? skeletonData.getDefaultSkin() : skeletonData.findSkin(linkedMesh.skin);
@@ -294,7 +280,6 @@ public class SkeletonBinary {
 				linkedMesh.mesh.setParentMesh((MeshAttachment)parent);
 				linkedMesh.mesh.updateUVs();
 			}
-			linkedMeshes.clear();
 
 			// Events.
 			for (int i = 0, n = input.readInt(true); i < n; i++) {
@@ -309,13 +294,8 @@ public class SkeletonBinary {
 			for (int i = 0, n = input.readInt(true); i < n; i++)
 				readAnimation(input, input.readString(), skeletonData);
 
-		} catch (IOException ex) {
+		} catch (BufferUnderflowException ex) {
 			throw new SerializationException("Error reading skeleton file.", ex);
-		} finally {
-			try {
-				input.close();
-			} catch (IOException ignored) {
-			}
 		}
 
 		skeletonData.bones.shrink();
@@ -328,7 +308,7 @@ public class SkeletonBinary {
 	}
 
 	/** @return May be null. */
-	private Skin readSkin (DataInput input, SkeletonData skeletonData, String skinName, boolean nonessential) throws IOException {
+	private Skin readSkin (SkeletonInput input, SkeletonData skeletonData, String skinName, boolean nonessential) {
 		int slotCount = input.readInt(true);
 		if (slotCount == 0) return null;
 		Skin skin = new Skin(skinName);
@@ -343,8 +323,8 @@ public class SkeletonBinary {
 		return skin;
 	}
 
-	private Attachment readAttachment (DataInput input, SkeletonData skeletonData, Skin skin, int slotIndex, String attachmentName,
-		boolean nonessential) throws IOException {
+	private Attachment readAttachment (SkeletonInput input, SkeletonData skeletonData, Skin skin, int slotIndex, String attachmentName,
+		boolean nonessential) {
 		float scale = this.scale;
 
 		String name = input.readString();
@@ -395,6 +375,22 @@ public class SkeletonBinary {
 			String path = input.readString();
 			int color = input.readInt();
 			int vertexCount = input.readInt(true);
+
+			if (path == null) path = name;
+			MeshAttachment mesh = attachmentLoader.newMeshAttachment(skin, name, path);
+			if (mesh == null) {
+				// Skip the mesh without allocating its arrays.
+				input.skip(vertexCount << 3);
+				skipShortArray(input);
+				skipVertices(input, vertexCount);
+				input.readInt(true);
+				if (nonessential) {
+					skipShortArray(input);
+					input.skip(8);
+				}
+				return null;
+			}
+
 			float[] uvs = readFloatArray(input, vertexCount << 1, 1);
 			short[] triangles = readShortArray(input);
 			Vertices vertices = readVertices(input, vertexCount);
@@ -407,9 +403,6 @@ public class SkeletonBinary {
 				height = input.readFloat();
 			}
 
-			if (path == null) path = name;
-			MeshAttachment mesh = attachmentLoader.newMeshAttachment(skin, name, path);
-			if (mesh == null) return null;
 			mesh.setPath(path);
 			Color.rgba8888ToColor(mesh.getColor(), color);
 			mesh.setBones(vertices.bones);
@@ -448,7 +441,7 @@ public class SkeletonBinary {
 				mesh.setWidth(width * scale);
 				mesh.setHeight(height * scale);
 			}
-			linkedMeshes.add(new LinkedMesh(mesh, skinName, slotIndex, parent));
+			input.linkedMeshes.add(new LinkedMesh(mesh, skinName, slotIndex, parent));
 			return mesh;
 		}
 		case path: {
@@ -489,11 +482,16 @@ public class SkeletonBinary {
 		case clipping: {
 			int endSlotIndex = input.readInt(true);
 			int vertexCount = input.readInt(true);
-			Vertices vertices = readVertices(input, vertexCount);
-			int color = nonessential ? input.readInt() : 0;
 
 			ClippingAttachment clip = attachmentLoader.newClippingAttachment(skin, name);
-			if (clip == null) return null;
+			if (clip == null) {
+				skipVertices(input, vertexCount);
+				if (nonessential) input.readInt();
+				return null;
+			}
+
+			Vertices vertices = readVertices(input, vertexCount);
+			int color = nonessential ? input.readInt() : 0;
 			clip.setEndSlot(skeletonData.slots.get(endSlotIndex));
 			clip.setWorldVerticesLength(vertexCount << 1);
 			clip.setVertices(vertices.vertices);
@@ -505,7 +503,7 @@ public class SkeletonBinary {
 		return null;
 	}
 
-	private Vertices readVertices (DataInput input, int vertexCount) throws IOException {
+	private Vertices readVertices (SkeletonInput input, int vertexCount) {
 		int verticesLength = vertexCount << 1;
 		Vertices vertices = new Vertices();
 		if (!input.readBoolean()) {
@@ -529,30 +527,45 @@ public class SkeletonBinary {
 		return vertices;
 	}
 
-	private float[] readFloatArray (DataInput input, int n, float scale) throws IOException {
+	private void skipVertices (SkeletonInput input, int vertexCount) {
+		if (!input.readBoolean()) {
+			input.skip(vertexCount << 3);
+			return;
+		}
+		for (int i = 0; i < vertexCount; i++) {
+			for (int ii = 0, n = input.readInt(true); ii < n; ii++) {
+				input.readInt(true);
+				input.skip(12);
+			}
+		}
+	}
+
+	private float[] readFloatArray (SkeletonInput input, int n, float scale) {
 		float[] array = new float[n];
-		if (scale == 1) {
-			for (int i = 0; i < n; i++)
-				array[i] = input.readFloat();
-		} else {
+		input.readFloats(array, 0, n);
+		if (scale != 1) {
 			for (int i = 0; i < n; i++)
-				array[i] = input.readFloat() * scale;
+				array[i] *= scale;
 		}
 		return array;
 	}
 
-	private short[] readShortArray (DataInput input) throws IOException {
+	private short[] readShortArray (SkeletonInput input) {
 		int n = input.readInt(true);
 		short[] array = new short[n];
-		for (int i = 0; i < n; i++)
-			array[i] = input.readShort();
+		input.readShorts(array, 0, n);
 		return array;
 	}
 
-	private void readAnimation (DataInput input, String name, SkeletonData skeletonData) {
+	private void skipShortArray (SkeletonInput input) {
+		input.skip(input.readInt(true) << 1);
+	}
+
+	private void readAnimation (SkeletonInput input, String name, SkeletonData skeletonData) {
 		Array<Timeline> timelines = new Array();
 		float scale = this.scale;
 		float duration = 0;
+		Color color = input.color, color2 = input.color2;
 
 		try {
 			// Slot timelines.
@@ -576,8 +589,8 @@ public class SkeletonBinary {
 						timeline.slotIndex = slotIndex;
 						for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
 							float time = input.readFloat();
-							Color.rgba8888ToColor(tempColor1, input.readInt());
-							timeline.setFrame(frameIndex, time, tempColor1.r, tempColor1.g, tempColor1.b, tempColor1.a);
+							Color.rgba8888ToColor(color, input.readInt());
+							timeline.setFrame(frameIndex, time, color.r, color.g, color.b, color.a);
 							if (frameIndex < frameCount - 1) readCurve(input, frameIndex, timeline);
 						}
 						timelines.add(timeline);
@@ -589,10 +602,9 @@ public class SkeletonBinary {
 						timeline.slotIndex = slotIndex;
 						for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
 							float time = input.readFloat();
-							Color.rgba8888ToColor(tempColor1, input.readInt());
-							Color.rgb888ToColor(tempColor2, input.readInt());
-							timeline.setFrame(frameIndex, time, tempColor1.r, tempColor1.g, tempColor1.b, tempColor1.a, tempColor2.r,
-								tempColor2.g, tempColor2.b);
+							Color.rgba8888ToColor(color, input.readInt());
+							Color.rgb888ToColor(color2, input.readInt());
+							timeline.setFrame(frameIndex, time, color.r, color.g, color.b, color.a, color2.r, color2.g, color2.b);
 							if (frameIndex < frameCount - 1) readCurve(input, frameIndex, timeline);
 						}
 						timelines.add(timeline);
@@ -727,39 +739,41 @@ public class SkeletonBinary {
 					int slotIndex = input.readInt(true);
 					for (int iii = 0, nnn = input.readInt(true); iii < nnn; iii++) {
 						VertexAttachment attachment = (VertexAttachment)skin.getAttachment(slotIndex, input.readString());
+						int frameCount = input.readInt(true);
+						if (attachment == null) {
+							// The attachment loader did not create the attachment, so the timeline is not needed.
+							duration = Math.max(duration, skipDeformTimeline(input, frameCount));
+							continue;
+						}
 						boolean weighted = attachment.getBones() != null;
 						float[] vertices = attachment.getVertices();
-						int deformLength = weighted ? vertices.length / 3 * 2 : vertices.length;
 
-						int frameCount = input.readInt(true);
 						DeformTimeline timeline = new DeformTimeline(frameCount);
 						timeline.slotIndex = slotIndex;
 						timeline.attachment = attachment;
 
 						for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
 							float time = input.readFloat();
+							// Only the vertices in the key are stored, the rest are the setup pose.
 							float[] deform;
-							int end = input.readInt(true);
-							if (end == 0)
-								deform = weighted ? new float[deformLength] : vertices;
+							int start = 0, count = input.readInt(true);
+							if (count == 0)
+								deform = DeformTimeline.EMPTY;
 							else {
-								deform = new float[deformLength];
-								int start = input.readInt(true);
-								end += start;
-								if (scale == 1) {
-									for (int v = start; v < end; v++)
-										deform[v] = input.readFloat();
-								} else {
-									for (int v = start; v < end; v++)
-										deform[v] = input.readFloat() * scale;
+								deform = new float[count];
+								start = input.readInt(true);
+								input.readFloats(deform, 0, count);
+								if (scale != 1) {
+									for (int v = 0; v < count; v++)
+										deform[v] *= scale;
 								}
 								if (!weighted) {
-									for (int v = 0, vn = deform.length; v < vn; v++)
-										deform[v] += vertices[v];
+									for (int v = 0; v < count; v++)
+										deform[v] += vertices[start + v];
 								}
 							}
 
-							timeline.setFrame(frameIndex, time, deform);
+							timeline.setFrame(frameIndex, time, deform, start);
 							if (frameIndex < frameCount - 1) readCurve(input, frameIndex, timeline);
 						}
 						timelines.add(timeline);
@@ -817,7 +831,7 @@ public class SkeletonBinary {
 				timelines.add(timeline);
 				duration = Math.max(duration, timeline.getFrames()[eventCount - 1]);
 			}
-		} catch (IOException ex) {
+		} catch (BufferUnderflowException ex) {
 			throw new SerializationException("Error reading skeleton file.", ex);
 		}
 
@@ -826,7 +840,23 @@ public class SkeletonBinary {
 
 	}
 
-	private void readCurve (DataInput input, int frameIndex, CurveTimeline timeline) throws IOException {
+	/** Reads the key frames of a deform timeline without creating the timeline.
+	 * @return The time of the last key frame. */
+	private float skipDeformTimeline (SkeletonInput input, int frameCount) {
+		float time = 0;
+		for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+			time = input.readFloat();
+			int count = input.readInt(true);
+			if (count > 0) {
+				input.readInt(true);
+				input.skip(count << 2);
+			}
+			if (frameIndex < frameCount - 1 && input.readByte() == CURVE_BEZIER) input.skip(16);
+		}
+		return time;
+	}
+
+	private void readCurve (SkeletonInput input, int frameIndex, CurveTimeline timeline) {
 		switch (input.readByte()) {
 		case CURVE_STEPPED:
 			timeline.setStepped(frameIndex);
@@ -838,11 +868,195 @@ public class SkeletonBinary {
 	}
 
 	void setCurve (CurveTimeline timeline, int frameIndex, float cx1, float cy1, float cx2, float cy2) {
-		timeline.setCurve(frameIndex, cx1, cy1, cx2, cy2);
+		if (curveLookup)
+			timeline.setCurveLookup(frameIndex, cx1, cy1, cx2, cy2);
+		else
+			timeline.setCurve(frameIndex, cx1, cy1, cx2, cy2);
 	}
 
 	static class Vertices {
 		int[] bones;
 		float[] vertices;
 	}
+
+	/** Decodes the binary format from a buffer and holds the state for reading a single skeleton, so a SkeletonBinary can read
+	 * multiple skeletons concurrently. Floats and shorts are read in bulk and ASCII strings are deduplicated, so names that occur
+	 * many times share a single instance. */
+	static class SkeletonInput {
+		final Array<LinkedMesh> linkedMeshes = new Array();
+		final Color color = new Color(), color2 = new Color();
+		private final ByteBuffer buffer;
+		private char[] chars = new char[32];
+		private String[] strings = new String[256];
+		private int stringCount;
+
+		SkeletonInput (ByteBuffer buffer) {
+			this(buffer, ByteOrder.BIG_ENDIAN);
+		}
+
+		SkeletonInput (ByteBuffer buffer, ByteOrder order) {
+			this.buffer = buffer.duplicate().order(order);
+		}
+
+		public byte readByte () {
+			return buffer.get();
+		}
+
+		public boolean readBoolean () {
+			return buffer.get() != 0;
+		}
+
+		public short readShort () {
+			return buffer.getShort();
+		}
+
+		public int readInt () {
+			return buffer.getInt();
+		}
+
+		/** Reads a 1-5 byte variable length int.
+		 * @param optimizePositive If false, the value was zig zag encoded so small negative values use fewer bytes. */
+		public int readInt (boolean optimizePositive) {
+			ByteBuffer buffer = this.buffer;
+			int b = buffer.get();
+			int result = b & 0x7F;
+			if ((b & 0x80) != 0) {
+				b = buffer.get();
+				result |= (b & 0x7F) << 7;
+				if ((b & 0x80) != 0) {
+					b = buffer.get();
+					result |= (b & 0x7F) << 14;
+					if ((b & 0x80) != 0) {
+						b = buffer.get();
+						result |= (b & 0x7F) << 21;
+						if ((b & 0x80) != 0) {
+							b = buffer.get();
+							result |= (b & 0x7F) << 28;
+						}
+					}
+				}
+			}
+			return optimizePositive ? result : ((result >>> 1) ^ -(result & 1));
+		}
+
+		public float readFloat () {
+			return buffer.getFloat();
+		}
+
+		public void readFloats (float[] values, int offset, int count) {
+			ByteBuffer buffer = this.buffer;
+			int position = buffer.position();
+			if (count > buffer.remaining() >> 2) throw new BufferUnderflowException();
+			buffer.asFloatBuffer().get(values, offset, count);
+			buffer.position(position + (count << 2));
+		}
+
+		public void readInts (int[] values, int offset, int count) {
+			ByteBuffer buffer = this.buffer;
+			int position = buffer.position();
+			if (count > buffer.remaining() >> 2) throw new BufferUnderflowException();
+			buffer.asIntBuffer().get(values, offset, count);
+			buffer.position(position + (count << 2));
+		}
+
+		public void skip (int count) {
+			ByteBuffer buffer = this.buffer;
+			if (count > buffer.remaining()) throw new BufferUnderflowException();
+			buffer.position(buffer.position() + count);
+		}
+
+		public void readShorts (short[] values, int offset, int count) {
+			ByteBuffer buffer = this.buffer;
+			int position = buffer.position();
+			if (count > buffer.remaining() >> 1) throw new BufferUnderflowException();
+			buffer.asShortBuffer().get(values, offset, count);
+			buffer.position(position + (count << 1));
+		}
+
+		/** @return May be null. */
+		public String readString () {
+			int byteCount = readInt(true);
+			switch (byteCount) {
+			case 0:
+				return null;
+			case 1:
+				return "";
+			}
+			byteCount--;
+			ByteBuffer buffer = this.buffer;
+			int position = buffer.position(), end = position + byteCount;
+			if (end > buffer.limit()) throw new BufferUnderflowException();
+
+			// Look up ASCII strings by their hash, which matches String#hashCode.
+			int hash = 0;
+			for (int i = position; i < end; i++) {
+				int b = buffer.get(i);
+				if (b < 0) return readUtf8(byteCount);
+				hash = 31 * hash + b;
+			}
+			String[] strings = this.strings;
+			int mask = strings.length - 1, index = hash & mask;
+			for (String string; (string = strings[index]) != null; index = (index + 1) & mask) {
+				if (string.hashCode() == hash && string.length() == byteCount && equals(string, position)) {
+					buffer.position(end);
+					return string;
+				}
+			}
+
+			if (chars.length < byteCount) chars = new char[byteCount];
+			char[] chars = this.chars;
+			for (int i = 0; i < byteCount; i++)
+				chars[i] = (char)buffer.get();
+			String string = new String(chars, 0, byteCount);
+			strings[index] = string;
+			if (++stringCount << 1 > strings.length) resizeStrings();
+			return string;
+		}
+
+		private boolean equals (String string, int position) {
+			ByteBuffer buffer = this.buffer;
+			for (int i = 0, n = string.length(); i < n; i++)
+				if (string.charAt(i) != buffer.get(position + i)) return false;
+			return true;
+		}
+
+		private void resizeStrings () {
+			String[] oldStrings = strings, strings = new String[oldStrings.length << 1];
+			int mask = strings.length - 1;
+			for (int i = 0, n = oldStrings.length; i < n; i++) {
+				String string = oldStrings[i];
+				if (string == null) continue;
+				int index = string.hashCode() & mask;
+				while (strings[index] != null)
+					index = (index + 1) & mask;
+				strings[index] = string;
+			}
+			this.strings = strings;
+		}
+
+		private String readUtf8 (int byteCount) {
+			ByteBuffer buffer = this.buffer;
+			if (chars.length < byteCount) chars = new char[byteCount];
+			char[] chars = this.chars;
+			int charCount = 0;
+			for (int i = 0; i < byteCount;) {
+				int b = buffer.get();
+				switch ((b & 0xFF) >> 4) {
+				case 12:
+				case 13:
+					chars[charCount++] = (char)((b & 0x1F) << 6 | buffer.get() & 0x3F);
+					i += 2;
+					break;
+				case 14:
+					chars[charCount++] = (char)((b & 0x0F) << 12 | (buffer.get() & 0x3F) << 6 | buffer.get() & 0x3F);
+					i += 3;
+					break;
+				default:
+					chars[charCount++] = (char)(b & 0xFF);
+					i++;
+				}
+			}
+			return new String(chars, 0, charCount);
+		}
+	}
 }
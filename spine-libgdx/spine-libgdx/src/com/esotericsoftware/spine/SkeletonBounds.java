@@ -32,6 +32,7 @@ package com.esotericsoftware.spine;
 
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.Pool;
 import com.esotericsoftware.spine.attachments.Attachment;
 import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
@@ -48,12 +49,26 @@ public class SkeletonBounds {
 		}
 	};
 
+	private boolean incremental, aabbValid;
+	private int updatedPolygons;
+	private Skeleton skeleton;
+	private int attachmentChanges;
+	private final IntArray boxSlots = new IntArray(); // Slot index for each bounding box.
+	private Attachment[] slotAttachments = new Attachment[0];
+	private FloatArray[] slotPolygons = new FloatArray[0];
+	private float[] slotTransforms = new float[0]; // a, b, c, d, worldX, worldY, ...
+	private float[] slotAabbs = new float[0]; // minX, minY, maxX, maxY, ...
+
 	/** Clears any previous polygons, finds all visible bounding box attachments, and computes the world vertices for each bounding
 	 * box's polygon.
 	 * @param updateAabb If true, the axis aligned bounding box containing all the polygons is computed. If false, the
 	 *           SkeletonBounds AABB methods will always return true. */
 	public void update (Skeleton skeleton, boolean updateAabb) {
 		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		if (incremental) {
+			updateIncremental(skeleton, updateAabb);
+			return;
+		}
 		Array<BoundingBoxAttachment> boundingBoxes = this.boundingBoxes;
 		Array<FloatArray> polygons = this.polygons;
 		Array<Slot> slots = skeleton.slots;
@@ -76,6 +91,7 @@ public class SkeletonBounds {
 					polygon.setSize(boundingBox.getWorldVerticesLength()), 0, 2);
 			}
 		}
+		updatedPolygons = polygons.size;
 
 		if (updateAabb)
 			aabbCompute();
@@ -87,6 +103,120 @@ public class SkeletonBounds {
 		}
 	}
 
+	private void updateIncremental (Skeleton skeleton, boolean updateAabb) {
+		Array<Slot> slots = skeleton.slots;
+		int slotCount = slots.size;
+		boolean findBoxes = skeleton.attachmentChanges != attachmentChanges;
+		if (skeleton != this.skeleton || slotAttachments.length != slotCount) {
+			this.skeleton = skeleton;
+			slotAttachments = new Attachment[slotCount];
+			slotPolygons = new FloatArray[slotCount];
+			slotTransforms = new float[slotCount * 6];
+			slotAabbs = new float[slotCount << 2];
+			aabbValid = false;
+			findBoxes = true;
+		}
+		Attachment[] slotAttachments = this.slotAttachments;
+		FloatArray[] slotPolygons = this.slotPolygons;
+		float[] slotTransforms = this.slotTransforms, slotAabbs = this.slotAabbs;
+		Array<BoundingBoxAttachment> boundingBoxes = this.boundingBoxes;
+		Array<FloatArray> polygons = this.polygons;
+		IntArray boxSlots = this.boxSlots;
+
+		// Only the slots with a bounding box are visited, unless an attachment has changed since the last update.
+		boolean changed = false;
+		if (findBoxes) {
+			attachmentChanges = skeleton.attachmentChanges;
+			boundingBoxes.clear();
+			polygons.clear();
+			boxSlots.clear();
+			for (int i = 0; i < slotCount; i++) {
+				Attachment attachment = slots.get(i).attachment;
+				if (!(attachment instanceof BoundingBoxAttachment)) {
+					if (slotAttachments[i] != null) {
+						slotAttachments[i] = null;
+						changed = true;
+					}
+					continue;
+				}
+				FloatArray polygon = slotPolygons[i];
+				if (polygon == null) slotPolygons[i] = polygon = new FloatArray();
+				boundingBoxes.add((BoundingBoxAttachment)attachment);
+				polygons.add(polygon);
+				boxSlots.add(i);
+			}
+		}
+
+		int updated = 0;
+		int[] boxSlotItems = boxSlots.items;
+		for (int s = 0, n = boxSlots.size; s < n; s++) {
+			int i = boxSlotItems[s];
+			Slot slot = slots.get(i);
+			BoundingBoxAttachment boundingBox = boundingBoxes.get(s);
+			FloatArray polygon = polygons.get(s);
+
+			// Weighted or deformed vertices depend on more than the slot's bone, so they are always computed. They are also computed
+			// on the next update, which may be after the deform is cleared, by storing NaN so the transform never matches.
+			Bone bone = slot.bone;
+			int t = i * 6;
+			boolean deformed = boundingBox.getBones() != null || slot.getAttachmentVertices().size > 0;
+			if (boundingBox == slotAttachments[i] && !deformed && bone.a == slotTransforms[t] && bone.b == slotTransforms[t + 1]
+				&& bone.c == slotTransforms[t + 2] && bone.d == slotTransforms[t + 3] && bone.worldX == slotTransforms[t + 4]
+				&& bone.worldY == slotTransforms[t + 5])
+				continue;
+			slotAttachments[i] = boundingBox;
+			slotTransforms[t] = deformed ? Float.NaN : bone.a;
+			slotTransforms[t + 1] = bone.b;
+			slotTransforms[t + 2] = bone.c;
+			slotTransforms[t + 3] = bone.d;
+			slotTransforms[t + 4] = bone.worldX;
+			slotTransforms[t + 5] = bone.worldY;
+
+			int verticesLength = boundingBox.getWorldVerticesLength();
+			float[] vertices = polygon.setSize(verticesLength);
+			boundingBox.computeWorldVertices(slot, 0, verticesLength, vertices, 0, 2);
+			float minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+			for (int ii = 0; ii < verticesLength; ii += 2) {
+				float x = vertices[ii], y = vertices[ii + 1];
+				minX = Math.min(minX, x);
+				minY = Math.min(minY, y);
+				maxX = Math.max(maxX, x);
+				maxY = Math.max(maxY, y);
+			}
+			int b = i << 2;
+			slotAabbs[b] = minX;
+			slotAabbs[b + 1] = minY;
+			slotAabbs[b + 2] = maxX;
+			slotAabbs[b + 3] = maxY;
+			changed = true;
+			updated++;
+		}
+		updatedPolygons = updated;
+
+		if (!updateAabb) {
+			minX = Integer.MIN_VALUE;
+			minY = Integer.MIN_VALUE;
+			maxX = Integer.MAX_VALUE;
+			maxY = Integer.MAX_VALUE;
+			aabbValid = false;
+		} else if (changed || !aabbValid) {
+			// Combine the bounds of each polygon rather than visiting every vertex.
+			float minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+			for (int s = 0, n = boxSlots.size; s < n; s++) {
+				int b = boxSlotItems[s] << 2;
+				minX = Math.min(minX, slotAabbs[b]);
+				minY = Math.min(minY, slotAabbs[b + 1]);
+				maxX = Math.max(maxX, slotAabbs[b + 2]);
+				maxY = Math.max(maxY, slotAabbs[b + 3]);
+			}
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			aabbValid = true;
+		}
+	}
+
 	private void aabbCompute () {
 		float minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
 		Array<FloatArray> polygons = this.polygons;
@@ -240,6 +370,32 @@ public class SkeletonBounds {
 		return polygons;
 	}
 
+	/** If true, {@link #update(Skeleton, boolean)} keeps the polygon for each slot and only computes its world vertices when the
+	 * slot's bounding box attachment or its bone's world transform has changed since the last update, and the AABB is only
+	 * computed when a polygon has changed. Only the slots that have a bounding box are visited, all slots are visited again only
+	 * when an attachment of the skeleton has changed. Bounding boxes with weights or deform are always computed, and are computed
+	 * again by the update after their deform is cleared. This is useful when updating the bounds often for skeletons that are
+	 * mostly not moving. Changing this clears the polygons. Default is false. */
+	public boolean getIncremental () {
+		return incremental;
+	}
+
+	public void setIncremental (boolean incremental) {
+		if (!this.incremental) polygonPool.freeAll(polygons);
+		boundingBoxes.clear();
+		polygons.clear();
+		this.incremental = incremental;
+		skeleton = null;
+		slotAttachments = new Attachment[0];
+		slotPolygons = new FloatArray[0];
+		aabbValid = false;
+	}
+
+	/** The number of polygons whose world vertices were computed by the last {@link #update(Skeleton, boolean)}. */
+	public int getUpdatedPolygonCount () {
+		return updatedPolygons;
+	}
+
 	/** Returns the polygon for the specified bounding box, or null. */
 	public FloatArray getPolygon (BoundingBoxAttachment boundingBox) {
 		if (boundingBox == null) throw new IllegalArgumentException("boundingBox cannot be null.");
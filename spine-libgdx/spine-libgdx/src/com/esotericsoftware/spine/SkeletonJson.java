@@ -76,11 +76,14 @@ import com.esotericsoftware.spine.attachments.VertexAttachment;
  * <p>
  * See <a href="http://esotericsoftware.com/spine-json-format">Spine JSON format</a> and
  * <a href="http://esotericsoftware.com/spine-loading-skeleton-data#JSON-and-binary-data">JSON and binary data</a> in the Spine
- * Runtimes Guide. */
+ * Runtimes Guide.
+ * <p>
+ * Skeleton data can be read by multiple threads at the same time if the attachment loader is thread safe and the settings are
+ * not changed while reading. {@link AtlasAttachmentLoader} is thread safe. */
 public class SkeletonJson {
 	private final AttachmentLoader attachmentLoader;
 	private float scale = 1;
-	private Array<LinkedMesh> linkedMeshes = new Array();
+	private boolean curveLookup;
 
 	public SkeletonJson (TextureAtlas atlas) {
 		attachmentLoader = new AtlasAttachmentLoader(atlas);
@@ -103,6 +106,17 @@ public class SkeletonJson {
 		this.scale = scale;
 	}
 
+	/** If true, Bezier curves are stored for constant time evaluation using
+	 * {@link CurveTimeline#setCurveLookup(int, float, float, float, float)}, which is faster to apply but slower to load.
+	 * Defaults to false. */
+	public boolean getCurveLookup () {
+		return curveLookup;
+	}
+
+	public void setCurveLookup (boolean curveLookup) {
+		this.curveLookup = curveLookup;
+	}
+
 	public SkeletonData readSkeletonData (FileHandle file) {
 		if (file == null) throw new IllegalArgumentException("file cannot be null.");
 
@@ -255,6 +269,7 @@ public class SkeletonJson {
 		}
 
 		// Skins.
+		Array<LinkedMesh> linkedMeshes = new Array();
 		for (JsonValue skinMap = root.getChild("skins"); skinMap != null; skinMap = skinMap.next) {
 			Skin skin = new Skin(skinMap.name);
 			for (JsonValue slotEntry = skinMap.child; slotEntry != null; slotEntry = slotEntry.next) {
@@ -262,7 +277,7 @@ public class SkeletonJson {
 				if (slot == null) throw new SerializationException("Slot not found: " + slotEntry.name);
 				for (JsonValue entry = slotEntry.child; entry != null; entry = entry.next) {
 					try {
-						Attachment attachment = readAttachment(entry, skin, slot.index, entry.name, skeletonData);
+						Attachment attachment = readAttachment(entry, skin, slot.index, entry.name, skeletonData, linkedMeshes);
 						if (attachment != null) skin.addAttachment(slot.index, entry.name, attachment);
 					} catch (Exception ex) {
 						throw new SerializationException("Error reading attachment: " + entry.name + ", skin: " + skin, ex);
@@ -283,7 +298,6 @@ public class SkeletonJson {
 			linkedMesh.mesh.setParentMesh((MeshAttachment)parent);
 			linkedMesh.mesh.updateUVs();
 		}
-		linkedMeshes.clear();
 
 		// Events.
 		for (JsonValue eventMap = root.getChild("events"); eventMap != null; eventMap = eventMap.next) {
@@ -312,7 +326,8 @@ public class SkeletonJson {
 		return skeletonData;
 	}
 
-	private Attachment readAttachment (JsonValue map, Skin skin, int slotIndex, String name, SkeletonData skeletonData) {
+	private Attachment readAttachment (JsonValue map, Skin skin, int slotIndex, String name, SkeletonData skeletonData,
+		Array<LinkedMesh> linkedMeshes) {
 		float scale = this.scale;
 		name = map.getString("name", name);
 
@@ -644,10 +659,14 @@ public class SkeletonJson {
 				if (slot == null) throw new SerializationException("Slot not found: " + slotMap.name);
 				for (JsonValue timelineMap = slotMap.child; timelineMap != null; timelineMap = timelineMap.next) {
 					VertexAttachment attachment = (VertexAttachment)skin.getAttachment(slot.index, timelineMap.name);
-					if (attachment == null) throw new SerializationException("Deform attachment not found: " + timelineMap.name);
+					if (attachment == null) {
+						// The attachment loader did not create the attachment, so the timeline is not needed.
+						for (JsonValue valueMap = timelineMap.child; valueMap != null; valueMap = valueMap.next)
+							duration = Math.max(duration, valueMap.getFloat("time"));
+						continue;
+					}
 					boolean weighted = attachment.getBones() != null;
 					float[] vertices = attachment.getVertices();
-					int deformLength = weighted ? vertices.length / 3 * 2 : vertices.length;
 
 					DeformTimeline timeline = new DeformTimeline(timelineMap.size);
 					timeline.slotIndex = slot.index;
@@ -655,25 +674,26 @@ public class SkeletonJson {
 
 					int frameIndex = 0;
 					for (JsonValue valueMap = timelineMap.child; valueMap != null; valueMap = valueMap.next) {
+						// Only the vertices in the key are stored, the rest are the setup pose.
 						float[] deform;
+						int start = 0;
 						JsonValue verticesValue = valueMap.get("vertices");
 						if (verticesValue == null)
-							deform = weighted ? new float[deformLength] : vertices;
+							deform = DeformTimeline.EMPTY;
 						else {
-							deform = new float[deformLength];
-							int start = valueMap.getInt("offset", 0);
-							System.arraycopy(verticesValue.asFloatArray(), 0, deform, start, verticesValue.size);
+							deform = verticesValue.asFloatArray();
+							start = valueMap.getInt("offset", 0);
 							if (scale != 1) {
-								for (int i = start, n = i + verticesValue.size; i < n; i++)
+								for (int i = 0, n = deform.length; i < n; i++)
 									deform[i] *= scale;
 							}
 							if (!weighted) {
-								for (int i = 0; i < deformLength; i++)
-									deform[i] += vertices[i];
+								for (int i = 0, n = deform.length; i < n; i++)
+									deform[i] += vertices[start + i];
 							}
 						}
 
-						timeline.setFrame(frameIndex, valueMap.getFloat("time"), deform);
+						timeline.setFrame(frameIndex, valueMap.getFloat("time"), deform, start);
 						readCurve(valueMap, timeline, frameIndex);
 						frameIndex++;
 					}
@@ -749,7 +769,10 @@ public class SkeletonJson {
 		if (curve.isString() && curve.asString().equals("stepped"))
 			timeline.setStepped(frameIndex);
 		else if (curve.isArray()) {
-			timeline.setCurve(frameIndex, curve.getFloat(0), curve.getFloat(1), curve.getFloat(2), curve.getFloat(3));
+			if (curveLookup)
+				timeline.setCurveLookup(frameIndex, curve.getFloat(0), curve.getFloat(1), curve.getFloat(2), curve.getFloat(3));
+			else
+				timeline.setCurve(frameIndex, curve.getFloat(0), curve.getFloat(1), curve.getFloat(2), curve.getFloat(3));
 		}
 	}
 
@@ -0,0 +1,176 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+/** A snapshot of the local, applied and world transforms of all the bones of a skeleton, stored in contiguous arrays indexed by
+ * {@link BoneData#getIndex()}.
+ * <p>
+ * The bones remain the storage used by {@link Skeleton#updateWorldTransform()}; a pose is a copy made from them with
+ * {@link Skeleton#getPose(SkeletonPose)}, for code that reads all bones, such as skinning or caching poses. A pose can also be
+ * written back to a skeleton with {@link #apply(Skeleton)}. */
+public class SkeletonPose {
+	/** The number of values per bone in {@link #getLocal()} and {@link #getApplied()}: x, y, rotation, scaleX, scaleY, shearX,
+	 * shearY. */
+	static public final int LOCAL_SIZE = 7;
+	/** The number of values per bone in {@link #getWorld()}: a, b, c, d, worldX, worldY. */
+	static public final int WORLD_SIZE = 6;
+
+	final int boneCount;
+	final float[] local, applied, world;
+	final boolean[] appliedValid;
+
+	public SkeletonPose (SkeletonData data) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+		boneCount = data.bones.size;
+		local = new float[boneCount * LOCAL_SIZE];
+		applied = new float[boneCount * LOCAL_SIZE];
+		world = new float[boneCount * WORLD_SIZE];
+		appliedValid = new boolean[boneCount];
+	}
+
+	/** Copies the local, applied and world transforms of the skeleton's bones into this pose. The applied transform of a bone is
+	 * only copied if it is {@link Bone#isAppliedValid() valid}, see {@link #isAppliedValid(int)}. */
+	public void set (Skeleton skeleton) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		Object[] bones = skeleton.bones.items;
+		float[] local = this.local, applied = this.applied;
+		boolean[] appliedValid = this.appliedValid;
+		for (int i = 0, l = 0, n = boneCount; i < n; i++, l += LOCAL_SIZE) {
+			Bone bone = (Bone)bones[i];
+			local[l] = bone.x;
+			local[l + 1] = bone.y;
+			local[l + 2] = bone.rotation;
+			local[l + 3] = bone.scaleX;
+			local[l + 4] = bone.scaleY;
+			local[l + 5] = bone.shearX;
+			local[l + 6] = bone.shearY;
+			appliedValid[i] = bone.appliedValid;
+			if (!bone.appliedValid) continue;
+			applied[l] = bone.ax;
+			applied[l + 1] = bone.ay;
+			applied[l + 2] = bone.arotation;
+			applied[l + 3] = bone.ascaleX;
+			applied[l + 4] = bone.ascaleY;
+			applied[l + 5] = bone.ashearX;
+			applied[l + 6] = bone.ashearY;
+		}
+		setWorld(skeleton);
+	}
+
+	/** Copies only the world transforms of the skeleton's bones into this pose. */
+	public void setWorld (Skeleton skeleton) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		Object[] bones = skeleton.bones.items;
+		float[] world = this.world;
+		for (int i = 0, w = 0, n = boneCount; i < n; i++, w += WORLD_SIZE) {
+			Bone bone = (Bone)bones[i];
+			world[w] = bone.a;
+			world[w + 1] = bone.b;
+			world[w + 2] = bone.c;
+			world[w + 3] = bone.d;
+			world[w + 4] = bone.worldX;
+			world[w + 5] = bone.worldY;
+		}
+	}
+
+	/** Sets the local, applied and world transforms of the skeleton's bones from this pose. The skeleton must have been created
+	 * from the same {@link SkeletonData} as this pose. Applied transforms that were not valid when the pose was set are left
+	 * invalid. */
+	public void apply (Skeleton skeleton) {
+		applyWorld(skeleton);
+		Object[] bones = skeleton.bones.items;
+		float[] local = this.local, applied = this.applied;
+		boolean[] appliedValid = this.appliedValid;
+		for (int i = 0, l = 0, n = boneCount; i < n; i++, l += LOCAL_SIZE) {
+			Bone bone = (Bone)bones[i];
+			bone.x = local[l];
+			bone.y = local[l + 1];
+			bone.rotation = local[l + 2];
+			bone.scaleX = local[l + 3];
+			bone.scaleY = local[l + 4];
+			bone.shearX = local[l + 5];
+			bone.shearY = local[l + 6];
+			if (!appliedValid[i]) continue;
+			bone.ax = applied[l];
+			bone.ay = applied[l + 1];
+			bone.arotation = applied[l + 2];
+			bone.ascaleX = applied[l + 3];
+			bone.ascaleY = applied[l + 4];
+			bone.ashearX = applied[l + 5];
+			bone.ashearY = applied[l + 6];
+			bone.appliedValid = true;
+		}
+	}
+
+	/** Sets only the world transforms of the skeleton's bones from this pose. The applied transforms are marked invalid, as for
+	 * other code that modifies the world transform. */
+	public void applyWorld (Skeleton skeleton) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		Object[] bones = skeleton.bones.items;
+		float[] world = this.world;
+		for (int i = 0, w = 0, n = boneCount; i < n; i++, w += WORLD_SIZE) {
+			Bone bone = (Bone)bones[i];
+			bone.a = world[w];
+			bone.b = world[w + 1];
+			bone.c = world[w + 2];
+			bone.d = world[w + 3];
+			bone.worldX = world[w + 4];
+			bone.worldY = world[w + 5];
+			bone.appliedValid = false;
+		}
+	}
+
+	public int getBoneCount () {
+		return boneCount;
+	}
+
+	/** The local transform of each bone, {@link #LOCAL_SIZE} values per bone. */
+	public float[] getLocal () {
+		return local;
+	}
+
+	/** Returns true if the applied transform of the bone was valid when the pose was set. Otherwise the bone's values in
+	 * {@link #getApplied()} are stale. */
+	public boolean isAppliedValid (int boneIndex) {
+		return appliedValid[boneIndex];
+	}
+
+	/** The applied transform of each bone, {@link #LOCAL_SIZE} values per bone. Only values for bones where
+	 * {@link #isAppliedValid(int)} is true are current. */
+	public float[] getApplied () {
+		return applied;
+	}
+
+	/** The world transform of each bone, {@link #WORLD_SIZE} values per bone. */
+	public float[] getWorld () {
+		return world;
+	}
+}
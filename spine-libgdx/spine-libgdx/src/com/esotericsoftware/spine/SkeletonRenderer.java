@@ -44,6 +44,7 @@ import com.esotericsoftware.spine.attachments.ClippingAttachment;
 import com.esotericsoftware.spine.attachments.MeshAttachment;
 import com.esotericsoftware.spine.attachments.RegionAttachment;
 import com.esotericsoftware.spine.attachments.SkeletonAttachment;
+import com.esotericsoftware.spine.utils.RenderCommandBuffer;
 import com.esotericsoftware.spine.utils.SkeletonClipping;
 import com.esotericsoftware.spine.utils.TwoColorPolygonBatch;
 
@@ -370,6 +371,139 @@ public class SkeletonRenderer {
 		if (vertexEffect != null) vertexEffect.end();
 	}
 
+	/** Records the skeleton's draw calls with dark colors, like {@link #draw(TwoColorPolygonBatch, Skeleton)}. Attachments whose
+	 * texture region has no texture are recorded with a null texture. */
+	@SuppressWarnings("null")
+	public void draw (RenderCommandBuffer buffer, Skeleton skeleton) {
+		Vector2 tempPos = this.temp;
+		Vector2 tempUv = this.temp2;
+		Color tempLight = this.temp3;
+		Color tempDark = this.temp4;
+		Color temp5 = this.temp5;
+		Color temp6 = this.temp6;
+		VertexEffect vertexEffect = this.vertexEffect;
+		if (vertexEffect != null) vertexEffect.begin(skeleton);
+
+		boolean premultipliedAlpha = this.premultipliedAlpha;
+		buffer.setPremultipliedAlpha(premultipliedAlpha);
+		BlendMode blendMode = null;
+		int verticesLength = 0;
+		float[] vertices = null, uvs = null;
+		short[] triangles = null;
+		Color color = null, skeletonColor = skeleton.color;
+		float r = skeletonColor.r, g = skeletonColor.g, b = skeletonColor.b, a = skeletonColor.a;
+		Array<Slot> drawOrder = skeleton.drawOrder;
+		for (int i = 0, n = drawOrder.size; i < n; i++) {
+			Slot slot = drawOrder.get(i);
+			Texture texture = null;
+			boolean render = false;
+			int vertexSize = clipper.isClipping() ? 2 : 6;
+			Attachment attachment = slot.attachment;
+			if (attachment instanceof RegionAttachment) {
+				RegionAttachment region = (RegionAttachment)attachment;
+				verticesLength = vertexSize << 2;
+				vertices = this.vertices.items;
+				region.computeWorldVertices(slot.getBone(), vertices, 0, vertexSize);
+				triangles = quadTriangles;
+				texture = region.getRegion().getTexture();
+				render = true;
+				uvs = region.getUVs();
+				color = region.getColor();
+
+			} else if (attachment instanceof MeshAttachment) {
+				MeshAttachment mesh = (MeshAttachment)attachment;
+				int count = mesh.getWorldVerticesLength();
+				verticesLength = (count >> 1) * vertexSize;
+				vertices = this.vertices.setSize(verticesLength);
+				mesh.computeWorldVertices(slot, 0, count, vertices, 0, vertexSize);
+				triangles = mesh.getTriangles();
+				texture = mesh.getRegion().getTexture();
+				render = true;
+				uvs = mesh.getUVs();
+				color = mesh.getColor();
+
+			} else if (attachment instanceof ClippingAttachment) {
+				ClippingAttachment clip = (ClippingAttachment)attachment;
+				clipper.clipStart(slot, clip);
+				continue;
+
+			} else if (attachment instanceof SkeletonAttachment) {
+				Skeleton attachmentSkeleton = ((SkeletonAttachment)attachment).getSkeleton();
+				if (attachmentSkeleton != null) draw(buffer, attachmentSkeleton);
+			}
+
+			if (render) {
+				Color lightColor = slot.getColor();
+				float alpha = a * lightColor.a * color.a * 255;
+				float multiplier = premultipliedAlpha ? alpha : 255;
+
+				BlendMode slotBlendMode = slot.data.getBlendMode();
+				if (slotBlendMode != blendMode) {
+					if (slotBlendMode == BlendMode.additive && premultipliedAlpha) {
+						slotBlendMode = BlendMode.normal;
+						alpha = 0;
+					}
+					blendMode = slotBlendMode;
+					buffer.setBlendFunction(blendMode.getSource(premultipliedAlpha), blendMode.getDest());
+				}
+
+				float red = r * color.r * multiplier;
+				float green = g * color.g * multiplier;
+				float blue = b * color.b * multiplier;
+				float light = NumberUtils.intToFloatColor(((int)alpha << 24) //
+					| ((int)(blue * lightColor.b) << 16) //
+					| ((int)(green * lightColor.g) << 8) //
+					| (int)(red * lightColor.r));
+				Color darkColor = slot.getDarkColor();
+				float dark = darkColor == null ? 0
+					: NumberUtils.intToFloatColor((int)(blue * darkColor.b) << 16 //
+						| (int)(green * darkColor.g) << 8 //
+						| (int)(red * darkColor.r));
+
+				if (clipper.isClipping()) {
+					clipper.clipTriangles(vertices, verticesLength, triangles, triangles.length, uvs, light, dark, true);
+					FloatArray clippedVertices = clipper.getClippedVertices();
+					ShortArray clippedTriangles = clipper.getClippedTriangles();
+					if (vertexEffect != null) applyVertexEffect(clippedVertices.items, clippedVertices.size, 6, light, dark);
+					buffer.draw(texture, clippedVertices.items, 0, clippedVertices.size, clippedTriangles.items, 0,
+						clippedTriangles.size);
+				} else {
+					if (vertexEffect != null) {
+						temp5.set(NumberUtils.floatToIntColor(light));
+						temp6.set(NumberUtils.floatToIntColor(dark));
+						for (int v = 0, u = 0; v < verticesLength; v += 6, u += 2) {
+							tempPos.x = vertices[v];
+							tempPos.y = vertices[v + 1];
+							tempLight.set(temp5);
+							tempDark.set(temp6);
+							tempUv.x = uvs[u];
+							tempUv.y = uvs[u + 1];
+							vertexEffect.transform(tempPos, tempUv, tempLight, tempDark);
+							vertices[v] = tempPos.x;
+							vertices[v + 1] = tempPos.y;
+							vertices[v + 2] = tempLight.toFloatBits();
+							vertices[v + 3] = tempDark.toFloatBits();
+							vertices[v + 4] = tempUv.x;
+							vertices[v + 5] = tempUv.y;
+						}
+					} else {
+						for (int v = 2, u = 0; v < verticesLength; v += 6, u += 2) {
+							vertices[v] = light;
+							vertices[v + 1] = dark;
+							vertices[v + 2] = uvs[u];
+							vertices[v + 3] = uvs[u + 1];
+						}
+					}
+					buffer.draw(texture, vertices, 0, verticesLength, triangles, 0, triangles.length);
+				}
+			}
+
+			clipper.clipEnd(slot);
+		}
+		clipper.clipEnd();
+		if (vertexEffect != null) vertexEffect.end();
+	}
+
 	private void applyVertexEffect (float[] vertices, int verticesLength, int stride, float light, float dark) {
 		Vector2 tempPos = this.temp;
 		Vector2 tempUv = this.temp2;
@@ -0,0 +1,1187 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+package com.esotericsoftware.spine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.SerializationException;
+import com.esotericsoftware.spine.Animation.AttachmentTimeline;
+import com.esotericsoftware.spine.Animation.ColorTimeline;
+import com.esotericsoftware.spine.Animation.CompressedDeformTimeline;
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.DrawOrderTimeline;
+import com.esotericsoftware.spine.Animation.EventTimeline;
+import com.esotericsoftware.spine.Animation.IkConstraintTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintMixTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintPositionTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintSpacingTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.ScaleTimeline;
+import com.esotericsoftware.spine.Animation.ShearTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TransformConstraintTimeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import com.esotericsoftware.spine.Animation.TwoColorTimeline;
+import com.esotericsoftware.spine.BoneData.TransformMode;
+import com.esotericsoftware.spine.PathConstraintData.PositionMode;
+import com.esotericsoftware.spine.PathConstraintData.RotateMode;
+import com.esotericsoftware.spine.PathConstraintData.SpacingMode;
+import com.esotericsoftware.spine.SkeletonBinary.SkeletonInput;
+import com.esotericsoftware.spine.attachments.AtlasAttachmentLoader;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+import com.esotericsoftware.spine.attachments.AttachmentType;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.PointAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+
+/** Writes and reads a snapshot of fully constructed skeleton data, which loads faster than the Spine binary or JSON formats.
+ * <p>
+ * A snapshot stores the skeleton data as it is after loading: values are already scaled, linked meshes are stored with a reference
+ * to their parent mesh, and the curves of timelines are stored as computed, including
+ * {@link SkeletonBinary#setCurveLookup(boolean) curve lookups}. Key frames, curves and vertices are stored little endian, the
+ * native byte order of most devices, and are read in bulk. Strings are decoded once. Only texture regions are resolved when
+ * reading, using the {@link AttachmentLoader}. A snapshot is not meant to be edited or exchanged between runtime versions: it has
+ * a header with the {@link #VERSION format version} and a CRC32 checksum, and reading it fails if either does not match.
+ * <p>
+ * {@link CompressedDeformTimeline Compressed deform timelines} are written as deform timelines with the decoded vertices.
+ * Timelines and attachments of other types can't be written.
+ * <p>
+ * Skeleton data can be read by multiple threads at the same time if the attachment loader is thread safe. */
+public class SkeletonSnapshot {
+	/** The first 4 bytes of a snapshot, "SPSN". */
+	static public final int MAGIC = 0x5350534e;
+	/** The format version, which changes when the format changes. */
+	static public final int VERSION = 1;
+	static private final int HEADER_SIZE = 16;
+
+	static private final int ROTATE = 0, TRANSLATE = 1, SCALE = 2, SHEAR = 3, ATTACHMENT = 4, COLOR = 5, TWO_COLOR = 6, DEFORM = 7,
+		DRAW_ORDER = 8, EVENT = 9, IK_CONSTRAINT = 10, TRANSFORM_CONSTRAINT = 11, PATH_CONSTRAINT_POSITION = 12,
+		PATH_CONSTRAINT_SPACING = 13, PATH_CONSTRAINT_MIX = 14;
+
+	private final AttachmentLoader attachmentLoader;
+
+	public SkeletonSnapshot (TextureAtlas atlas) {
+		attachmentLoader = new AtlasAttachmentLoader(atlas);
+	}
+
+	public SkeletonSnapshot (AttachmentLoader attachmentLoader) {
+		if (attachmentLoader == null) throw new IllegalArgumentException("attachmentLoader cannot be null.");
+		this.attachmentLoader = attachmentLoader;
+	}
+
+	public void writeSkeletonData (SkeletonData skeletonData, FileHandle file) {
+		if (file == null) throw new IllegalArgumentException("file cannot be null.");
+		file.writeBytes(writeSkeletonData(skeletonData), false);
+	}
+
+	/** Returns a snapshot of the skeleton data. */
+	public byte[] writeSkeletonData (SkeletonData skeletonData) {
+		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
+
+		SnapshotOutput output = new SnapshotOutput();
+
+		output.writeString(skeletonData.name);
+		output.writeString(skeletonData.hash);
+		output.writeString(skeletonData.version);
+		output.writeFloat(skeletonData.width);
+		output.writeFloat(skeletonData.height);
+		output.writeFloat(skeletonData.fps);
+		output.writeString(skeletonData.imagesPath);
+
+		// Bones.
+		Array<BoneData> bones = skeletonData.bones;
+		output.writeInt(bones.size, true);
+		for (int i = 0, n = bones.size; i < n; i++) {
+			BoneData data = bones.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.parent == null ? 0 : data.parent.index + 1, true);
+			output.writeFloat(data.length);
+			output.writeFloat(data.x);
+			output.writeFloat(data.y);
+			output.writeFloat(data.rotation);
+			output.writeFloat(data.scaleX);
+			output.writeFloat(data.scaleY);
+			output.writeFloat(data.shearX);
+			output.writeFloat(data.shearY);
+			output.writeInt(data.transformMode.ordinal(), true);
+			output.writeColor(data.color);
+		}
+
+		// Slots.
+		Array<SlotData> slots = skeletonData.slots;
+		output.writeInt(slots.size, true);
+		for (int i = 0, n = slots.size; i < n; i++) {
+			SlotData data = slots.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.boneData.index, true);
+			output.writeColor(data.color);
+			output.writeBoolean(data.darkColor != null);
+			if (data.darkColor != null) output.writeColor(data.darkColor);
+			output.writeString(data.attachmentName);
+			output.writeInt(data.blendMode.ordinal(), true);
+		}
+
+		// IK constraints.
+		Array<IkConstraintData> ikConstraints = skeletonData.ikConstraints;
+		output.writeInt(ikConstraints.size, true);
+		for (int i = 0, n = ikConstraints.size; i < n; i++) {
+			IkConstraintData data = ikConstraints.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.order, true);
+			output.writeBones(data.bones);
+			output.writeInt(data.target.index, true);
+			output.writeFloat(data.mix);
+			output.writeInt(data.bendDirection, false);
+		}
+
+		// Transform constraints.
+		Array<TransformConstraintData> transformConstraints = skeletonData.transformConstraints;
+		output.writeInt(transformConstraints.size, true);
+		for (int i = 0, n = transformConstraints.size; i < n; i++) {
+			TransformConstraintData data = transformConstraints.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.order, true);
+			output.writeBones(data.bones);
+			output.writeInt(data.target.index, true);
+			output.writeBoolean(data.local);
+			output.writeBoolean(data.relative);
+			output.writeFloat(data.offsetRotation);
+			output.writeFloat(data.offsetX);
+			output.writeFloat(data.offsetY);
+			output.writeFloat(data.offsetScaleX);
+			output.writeFloat(data.offsetScaleY);
+			output.writeFloat(data.offsetShearY);
+			output.writeFloat(data.rotateMix);
+			output.writeFloat(data.translateMix);
+			output.writeFloat(data.scaleMix);
+			output.writeFloat(data.shearMix);
+		}
+
+		// Path constraints.
+		Array<PathConstraintData> pathConstraints = skeletonData.pathConstraints;
+		output.writeInt(pathConstraints.size, true);
+		for (int i = 0, n = pathConstraints.size; i < n; i++) {
+			PathConstraintData data = pathConstraints.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.order, true);
+			output.writeBones(data.bones);
+			output.writeInt(data.target.index, true);
+			output.writeInt(data.positionMode.ordinal(), true);
+			output.writeInt(data.spacingMode.ordinal(), true);
+			output.writeInt(data.rotateMode.ordinal(), true);
+			output.writeFloat(data.offsetRotation);
+			output.writeFloat(data.position);
+			output.writeFloat(data.spacing);
+			output.writeFloat(data.rotateMix);
+			output.writeFloat(data.translateMix);
+		}
+
+		// Skin names. The default skin is written last if it is not in the skeleton data's skins.
+		Array<Skin> skins = new Array(skeletonData.skins);
+		Skin defaultSkin = skeletonData.defaultSkin;
+		int defaultSkinIndex = defaultSkin == null ? -1 : skins.indexOf(defaultSkin, true);
+		if (defaultSkin != null && defaultSkinIndex == -1) {
+			defaultSkinIndex = skins.size;
+			skins.add(defaultSkin);
+		}
+		output.writeInt(skins.size, true);
+		output.writeInt(skeletonData.skins.size, true);
+		output.writeInt(defaultSkinIndex + 1, true);
+		for (int i = 0, n = skins.size; i < n; i++)
+			output.writeString(skins.get(i).name);
+
+		// Attachments, each written once even if it is in multiple skins. Linked meshes are written after their parent mesh.
+		Array<Attachment> attachments = new Array();
+		ObjectIntMap<Attachment> attachmentIndices = new ObjectIntMap();
+		ObjectIntMap<Attachment> attachmentSkins = new ObjectIntMap();
+		Array<String> names = new Array();
+		for (int i = 0, n = skins.size; i < n; i++) {
+			Skin skin = skins.get(i);
+			for (int slotIndex = 0, nn = slots.size; slotIndex < nn; slotIndex++) {
+				names.clear();
+				skin.findNamesForSlot(slotIndex, names);
+				names.sort(); // Skin iteration order is not deterministic.
+				for (int ii = 0, nnn = names.size; ii < nnn; ii++) {
+					Attachment attachment = skin.getAttachment(slotIndex, names.get(ii));
+					if (attachmentSkins.containsKey(attachment)) continue;
+					attachmentSkins.put(attachment, i);
+					attachments.add(attachment);
+				}
+			}
+		}
+		Array<Attachment> ordered = new Array(attachments.size);
+		while (attachments.size > 0) {
+			int size = attachments.size;
+			for (int i = 0; i < attachments.size; i++) {
+				Attachment attachment = attachments.get(i);
+				if (attachment instanceof MeshAttachment) {
+					MeshAttachment parent = ((MeshAttachment)attachment).getParentMesh();
+					if (parent != null && !attachmentIndices.containsKey(parent)) {
+						if (!attachmentSkins.containsKey(parent))
+							throw new SerializationException("Parent mesh is not in a skin: " + parent.getName());
+						continue;
+					}
+				}
+				attachmentIndices.put(attachment, ordered.size);
+				ordered.add(attachment);
+				attachments.removeIndex(i--);
+			}
+			if (attachments.size == size) throw new SerializationException("Linked meshes have a cycle.");
+		}
+		output.writeInt(ordered.size, true);
+		for (int i = 0, n = ordered.size; i < n; i++) {
+			Attachment attachment = ordered.get(i);
+			writeAttachment(output, attachment, attachmentSkins.get(attachment, 0), attachmentIndices);
+		}
+
+		// Skin attachments.
+		for (int i = 0, n = skins.size; i < n; i++) {
+			Skin skin = skins.get(i);
+			int count = 0;
+			for (int slotIndex = 0, nn = slots.size; slotIndex < nn; slotIndex++) {
+				names.clear();
+				skin.findNamesForSlot(slotIndex, names);
+				count += names.size;
+			}
+			output.writeInt(count, true);
+			for (int slotIndex = 0, nn = slots.size; slotIndex < nn; slotIndex++) {
+				names.clear();
+				skin.findNamesForSlot(slotIndex, names);
+				names.sort(); // Skin iteration order is not deterministic.
+				for (int ii = 0, nnn = names.size; ii < nnn; ii++) {
+					String name = names.get(ii);
+					output.writeInt(slotIndex, true);
+					output.writeString(name);
+					output.writeInt(attachmentIndices.get(skin.getAttachment(slotIndex, name), 0), true);
+				}
+			}
+		}
+
+		// Events.
+		Array<EventData> events = skeletonData.events;
+		output.writeInt(events.size, true);
+		for (int i = 0, n = events.size; i < n; i++) {
+			EventData data = events.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.intValue, false);
+			output.writeFloat(data.floatValue);
+			output.writeString(data.stringValue);
+		}
+
+		// Animations.
+		Array<Animation> animations = skeletonData.animations;
+		output.writeInt(animations.size, true);
+		for (int i = 0, n = animations.size; i < n; i++) {
+			Animation animation = animations.get(i);
+			output.writeString(animation.name);
+			output.writeFloat(animation.duration);
+			Array<Timeline> timelines = animation.timelines;
+			output.writeInt(timelines.size, true);
+			for (int ii = 0, nn = timelines.size; ii < nn; ii++)
+				writeTimeline(output, skeletonData, timelines.get(ii), attachmentIndices);
+		}
+
+		// Header, strings and the rest of the snapshot.
+		SnapshotOutput snapshot = new SnapshotOutput();
+		snapshot.buffer.position(HEADER_SIZE);
+		Array<String> strings = output.strings;
+		snapshot.writeInt(strings.size, true);
+		for (int i = 0, n = strings.size; i < n; i++)
+			snapshot.writeUtf8(strings.get(i));
+		snapshot.writeBytes(output.buffer.array(), output.buffer.position());
+
+		ByteBuffer buffer = snapshot.buffer;
+		int size = buffer.position();
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), HEADER_SIZE, size - HEADER_SIZE);
+		buffer.order(ByteOrder.BIG_ENDIAN);
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(8, size - HEADER_SIZE);
+		buffer.putInt(12, (int)crc.getValue());
+
+		byte[] bytes = new byte[size];
+		System.arraycopy(buffer.array(), 0, bytes, 0, size);
+		return bytes;
+	}
+
+	private void writeAttachment (SnapshotOutput output, Attachment attachment, int skinIndex,
+		ObjectIntMap<Attachment> attachmentIndices) {
+		output.writeInt(skinIndex, true);
+		output.writeString(attachment.getName());
+
+		if (attachment instanceof RegionAttachment) {
+			RegionAttachment region = (RegionAttachment)attachment;
+			output.writeByte(AttachmentType.region.ordinal());
+			output.writeString(region.getPath());
+			output.writeFloat(region.getX());
+			output.writeFloat(region.getY());
+			output.writeFloat(region.getScaleX());
+			output.writeFloat(region.getScaleY());
+			output.writeFloat(region.getRotation());
+			output.writeFloat(region.getWidth());
+			output.writeFloat(region.getHeight());
+			output.writeColor(region.getColor());
+
+		} else if (attachment instanceof MeshAttachment) {
+			MeshAttachment mesh = (MeshAttachment)attachment;
+			MeshAttachment parent = mesh.getParentMesh();
+			output.writeByte((parent == null ? AttachmentType.mesh : AttachmentType.linkedmesh).ordinal());
+			output.writeString(mesh.getPath());
+			output.writeColor(mesh.getColor());
+			output.writeFloat(mesh.getWidth());
+			output.writeFloat(mesh.getHeight());
+			output.writeBoolean(mesh.getInheritDeform());
+			if (parent != null)
+				output.writeInt(attachmentIndices.get(parent, 0), true);
+			else {
+				writeVertices(output, mesh);
+				output.writeFloats(mesh.getRegionUVs());
+				output.writeShorts(mesh.getTriangles());
+				output.writeInt(mesh.getHullLength(), true);
+				output.writeShorts(mesh.getEdges());
+			}
+
+		} else if (attachment instanceof BoundingBoxAttachment) {
+			BoundingBoxAttachment box = (BoundingBoxAttachment)attachment;
+			output.writeByte(AttachmentType.boundingbox.ordinal());
+			writeVertices(output, box);
+			output.writeColor(box.getColor());
+
+		} else if (attachment instanceof PathAttachment) {
+			PathAttachment path = (PathAttachment)attachment;
+			output.writeByte(AttachmentType.path.ordinal());
+			output.writeBoolean(path.getClosed());
+			output.writeBoolean(path.getConstantSpeed());
+			writeVertices(output, path);
+			output.writeFloats(path.getLengths());
+			output.writeColor(path.getColor());
+
+		} else if (attachment instanceof PointAttachment) {
+			PointAttachment point = (PointAttachment)attachment;
+			output.writeByte(AttachmentType.point.ordinal());
+			output.writeFloat(point.getX());
+			output.writeFloat(point.getY());
+			output.writeFloat(point.getRotation());
+			output.writeColor(point.getColor());
+
+		} else if (attachment instanceof ClippingAttachment) {
+			ClippingAttachment clip = (ClippingAttachment)attachment;
+			output.writeByte(AttachmentType.clipping.ordinal());
+			output.writeInt(clip.getEndSlot() == null ? 0 : clip.getEndSlot().index + 1, true);
+			writeVertices(output, clip);
+			output.writeColor(clip.getColor());
+
+		} else
+			throw new SerializationException("Unsupported attachment: " + attachment.getClass().getName());
+	}
+
+	private void writeVertices (SnapshotOutput output, VertexAttachment attachment) {
+		output.writeInts(attachment.getBones());
+		output.writeFloats(attachment.getVertices());
+		output.writeInt(attachment.getWorldVerticesLength(), true);
+	}
+
+	private void writeTimeline (SnapshotOutput output, SkeletonData skeletonData, Timeline timeline,
+		ObjectIntMap<Attachment> attachmentIndices) {
+		if (timeline instanceof RotateTimeline) {
+			RotateTimeline rotate = (RotateTimeline)timeline;
+			output.writeByte(ROTATE);
+			output.writeInt(rotate.boneIndex, true);
+			writeFrames(output, rotate, rotate.getFrames());
+
+		} else if (timeline instanceof TranslateTimeline) {
+			TranslateTimeline translate = (TranslateTimeline)timeline;
+			output.writeByte(timeline instanceof ScaleTimeline ? SCALE : timeline instanceof ShearTimeline ? SHEAR : TRANSLATE);
+			output.writeInt(translate.boneIndex, true);
+			writeFrames(output, translate, translate.getFrames());
+
+		} else if (timeline instanceof AttachmentTimeline) {
+			AttachmentTimeline attachment = (AttachmentTimeline)timeline;
+			String[] attachmentNames = attachment.getAttachmentNames();
+			output.writeByte(ATTACHMENT);
+			output.writeInt(attachment.slotIndex, true);
+			output.writeInt(attachmentNames.length, true);
+			output.writeFloats(attachment.getFrames(), attachmentNames.length);
+			for (int i = 0, n = attachmentNames.length; i < n; i++)
+				output.writeString(attachmentNames[i]);
+
+		} else if (timeline instanceof ColorTimeline) {
+			ColorTimeline color = (ColorTimeline)timeline;
+			output.writeByte(COLOR);
+			output.writeInt(color.slotIndex, true);
+			writeFrames(output, color, color.getFrames());
+
+		} else if (timeline instanceof TwoColorTimeline) {
+			TwoColorTimeline color = (TwoColorTimeline)timeline;
+			output.writeByte(TWO_COLOR);
+			output.writeInt(color.slotIndex, true);
+			writeFrames(output, color, color.getFrames());
+
+		} else if (timeline instanceof DeformTimeline) {
+			DeformTimeline deform = (DeformTimeline)timeline;
+			if (!attachmentIndices.containsKey(deform.attachment))
+				throw new SerializationException("Deform attachment is not in a skin: " + deform.attachment.getName());
+			output.writeByte(DEFORM);
+			output.writeInt(deform.slotIndex, true);
+			output.writeInt(attachmentIndices.get(deform.attachment, 0), true);
+			writeFrames(output, deform, deform.getFrames());
+			float[][] vertices = deform.getVertices();
+			int[] offsets = deform.getOffsets();
+			for (int i = 0, n = vertices.length; i < n; i++) {
+				output.writeInt(offsets[i], true);
+				output.writeFloats(vertices[i]);
+			}
+
+		} else if (timeline instanceof CompressedDeformTimeline) {
+			CompressedDeformTimeline deform = (CompressedDeformTimeline)timeline;
+			if (!attachmentIndices.containsKey(deform.attachment))
+				throw new SerializationException("Deform attachment is not in a skin: " + deform.attachment.getName());
+			output.writeByte(DEFORM);
+			output.writeInt(deform.slotIndex, true);
+			output.writeInt(attachmentIndices.get(deform.attachment, 0), true);
+			float[] frames = deform.getFrames();
+			writeFrames(output, deform, frames);
+			float[] vertices = new float[deform.getVertexCount()];
+			for (int i = 0, n = frames.length; i < n; i++) {
+				int offset = deform.getOffset(i);
+				deform.getVertices(i, vertices);
+				output.writeInt(offset, true);
+				output.writeFloats(Arrays.copyOfRange(vertices, offset, offset + deform.getCount(i)));
+			}
+
+		} else if (timeline instanceof DrawOrderTimeline) {
+			DrawOrderTimeline drawOrder = (DrawOrderTimeline)timeline;
+			int[][] drawOrders = drawOrder.getDrawOrders();
+			output.writeByte(DRAW_ORDER);
+			output.writeInt(drawOrders.length, true);
+			output.writeFloats(drawOrder.getFrames(), drawOrders.length);
+			for (int i = 0, n = drawOrders.length; i < n; i++)
+				output.writeInts(drawOrders[i]);
+
+		} else if (timeline instanceof EventTimeline) {
+			EventTimeline eventTimeline = (EventTimeline)timeline;
+			Event[] events = eventTimeline.getEvents();
+			output.writeByte(EVENT);
+			output.writeInt(events.length, true);
+			output.writeFloats(eventTimeline.getFrames(), events.length);
+			for (int i = 0, n = events.length; i < n; i++) {
+				Event event = events[i];
+				int dataIndex = skeletonData.events.indexOf(event.getData(), true);
+				if (dataIndex == -1) throw new SerializationException("Event data not found: " + event.getData().name);
+				output.writeInt(dataIndex, true);
+				output.writeInt(event.intValue, false);
+				output.writeFloat(event.floatValue);
+				output.writeString(event.stringValue);
+			}
+
+		} else if (timeline instanceof IkConstraintTimeline) {
+			IkConstraintTimeline ik = (IkConstraintTimeline)timeline;
+			output.writeByte(IK_CONSTRAINT);
+			output.writeInt(ik.ikConstraintIndex, true);
+			writeFrames(output, ik, ik.getFrames());
+
+		} else if (timeline instanceof TransformConstraintTimeline) {
+			TransformConstraintTimeline transform = (TransformConstraintTimeline)timeline;
+			output.writeByte(TRANSFORM_CONSTRAINT);
+			output.writeInt(transform.transformConstraintIndex, true);
+			writeFrames(output, transform, transform.getFrames());
+
+		} else if (timeline instanceof PathConstraintPositionTimeline) {
+			PathConstraintPositionTimeline path = (PathConstraintPositionTimeline)timeline;
+			output.writeByte(timeline instanceof PathConstraintSpacingTimeline ? PATH_CONSTRAINT_SPACING : PATH_CONSTRAINT_POSITION);
+			output.writeInt(path.pathConstraintIndex, true);
+			writeFrames(output, path, path.getFrames());
+
+		} else if (timeline instanceof PathConstraintMixTimeline) {
+			PathConstraintMixTimeline path = (PathConstraintMixTimeline)timeline;
+			output.writeByte(PATH_CONSTRAINT_MIX);
+			output.writeInt(path.pathConstraintIndex, true);
+			writeFrames(output, path, path.getFrames());
+
+		} else
+			throw new SerializationException("Unsupported timeline: " + timeline.getClass().getName());
+	}
+
+	/** Writes the frame count, the frames and the curves. The curves are omitted if all key frames are linear. */
+	private void writeFrames (SnapshotOutput output, CurveTimeline timeline, float[] frames) {
+		output.writeInt(timeline.getFrameCount(), true);
+		output.writeFloats(frames, frames.length);
+		float[] curves = timeline.getCurves();
+		boolean linear = true;
+		for (int i = 0, n = curves.length; i < n; i++) {
+			if (curves[i] != 0) {
+				linear = false;
+				break;
+			}
+		}
+		output.writeBoolean(linear);
+		if (!linear) output.writeFloats(curves, curves.length);
+	}
+
+	public SkeletonData readSkeletonData (FileHandle file) {
+		if (file == null) throw new IllegalArgumentException("file cannot be null.");
+		return readSkeletonData(ByteBuffer.wrap(file.readBytes()));
+	}
+
+	/** Reads skeleton data from the buffer's position, without changing the buffer's position or byte order. The buffer may be a
+	 * direct or memory mapped buffer.
+	 * @throws SerializationException if the snapshot is not valid, has a different {@link #VERSION}, or its checksum does not
+	 *            match. */
+	public SkeletonData readSkeletonData (ByteBuffer buffer) {
+		if (buffer == null) throw new IllegalArgumentException("buffer cannot be null.");
+
+		// Header.
+		ByteBuffer header = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC)
+			throw new SerializationException("Not a skeleton snapshot.");
+		int version = header.getInt();
+		if (version != VERSION)
+			throw new SerializationException("Skeleton snapshot version " + version + " is not supported, expected: " + VERSION);
+		int size = header.getInt(), checksum = header.getInt();
+		if (size < 0 || size > header.remaining()) throw new SerializationException("Skeleton snapshot is truncated.");
+		header.limit(header.position() + size);
+		if (checksum != checksum(header)) throw new SerializationException("Skeleton snapshot checksum does not match.");
+
+		SkeletonData skeletonData = new SkeletonData();
+		try {
+			SkeletonInput input = new SnapshotInput(header);
+			skeletonData.name = input.readString();
+			skeletonData.hash = input.readString();
+			skeletonData.version = input.readString();
+			skeletonData.width = input.readFloat();
+			skeletonData.height = input.readFloat();
+			skeletonData.fps = input.readFloat();
+			skeletonData.imagesPath = input.readString();
+
+			// Bones.
+			Array<BoneData> bones = skeletonData.bones;
+			for (int i = 0, n = input.readInt(true); i < n; i++) {
+				String name = input.readString();
+				int parentIndex = input.readInt(true);
+				BoneData data = new BoneData(i, name, parentIndex == 0 ? null : bones.get(parentIndex - 1));
+				data.length = input.readFloat();
+				data.x = input.readFloat();
+				data.y = input.readFloat();
+				data.rotation = input.readFloat();
+				data.scaleX = input.readFloat();
+				data.scaleY = input.readFloat();
+				data.shearX = input.readFloat();
+				data.shearY = input.readFloat();
+				data.transformMode = TransformMode.values[input.readInt(true)];
+				readColor(input, data.color);
+				bones.add(data);
+			}
+
+			// Slots.
+			Array<SlotData> slots = skeletonData.slots;
+			for (int i = 0, n = input.readInt(true); i < n; i++) {
+				SlotData data = new SlotData(i, input.readString(), bones.get(input.readInt(true)));
+				readColor(input, data.color);
+				if (input.readBoolean()) readColor(input, data.darkColor = new Color());
+				data.attachmentName = input.readString();
+				data.blendMode = BlendMode.values[input.readInt(true)];
+				slots.add(data);
+			}
+
+			// IK constraints.
+			for (int i = 0, n = input.readInt(true); i < n; i++) {
+				IkConstraintData data = new IkConstraintData(input.readString());
+				data.order = input.readInt(true);
+				readBones(input, bones, data.bones);
+				data.target = bones.get(input.readInt(true));
+				data.mix = input.readFloat();
+				data.bendDirection = input.readInt(false);
+				skeletonData.ikConstraints.add(data);
+			}
+
+			// Transform constraints.
+			for (int i = 0, n = input.readInt(true); i < n; i++) {
+				TransformConstraintData data = new TransformConstraintData(input.readString());
+				data.order = input.readInt(true);
+				readBones(input, bones, data.bones);
+				data.target = bones.get(input.readInt(true));
+				data.local = input.readBoolean();
+				data.relative = input.readBoolean();
+				data.offsetRotation = input.readFloat();
+				data.offsetX = input.readFloat();
+				data.offsetY = input.readFloat();
+				data.offsetScaleX = input.readFloat();
+				data.offsetScaleY = input.readFloat();
+				data.offsetShearY = input.readFloat();
+				data.rotateMix = input.readFloat();
+				data.translateMix = input.readFloat();
+				data.scaleMix = input.readFloat();
+				data.shearMix = input.readFloat();
+				skeletonData.transformConstraints.add(data);
+			}
+
+			// Path constraints.
+			for (int i = 0, n = input.readInt(true); i < n; i++) {
+				PathConstraintData data = new PathConstraintData(input.readString());
+				data.order = input.readInt(true);
+				readBones(input, bones, data.bones);
+				data.target = slots.get(input.readInt(true));
+				data.positionMode = PositionMode.values[input.readInt(true)];
+				data.spacingMode = SpacingMode.values[input.readInt(true)];
+				data.rotateMode = RotateMode.values[input.readInt(true)];
+				data.offsetRotation = input.readFloat();
+				data.position = input.readFloat();
+				data.spacing = input.readFloat();
+				data.rotateMix = input.readFloat();
+				data.translateMix = input.readFloat();
+				skeletonData.pathConstraints.add(data);
+			}
+
+			// Skin names.
+			Skin[] skins = new Skin[input.readInt(true)];
+			int skinCount = input.readInt(true), defaultSkinIndex = input.readInt(true) - 1;
+			for (int i = 0, n = skins.length; i < n; i++)
+				skins[i] = new Skin(input.readString());
+			for (int i = 0; i < skinCount; i++)
+				skeletonData.skins.add(skins[i]);
+			if (defaultSkinIndex != -1) skeletonData.defaultSkin = skins[defaultSkinIndex];
+
+			// Attachments.
+			Attachment[] attachments = new Attachment[input.readInt(true)];
+			for (int i = 0, n = attachments.length; i < n; i++)
+				attachments[i] = readAttachment(input, skeletonData, skins, attachments);
+
+			// Skin attachments.
+			for (int i = 0, n = skins.length; i < n; i++) {
+				Skin skin = skins[i];
+				for (int ii = 0, nn = input.readInt(true); ii < nn; ii++) {
+					int slotIndex = input.readInt(true);
+					String name = input.readString();
+					Attachment attachment = attachments[input.readInt(true)];
+					if (attachment != null) skin.addAttachment(slotIndex, name, attachment);
+				}
+			}
+
+			// Events.
+			for (int i = 0, n = input.readInt(true); i < n; i++) {
+				EventData data = new EventData(input.readString());
+				data.intValue = input.readInt(false);
+				data.floatValue = input.readFloat();
+				data.stringValue = input.readString();
+				skeletonData.events.add(data);
+			}
+
+			// Animations.
+			for (int i = 0, n = input.readInt(true); i < n; i++) {
+				String name = input.readString();
+				float duration = input.readFloat();
+				int timelineCount = input.readInt(true);
+				Array<Timeline> timelines = new Array(timelineCount);
+				for (int ii = 0; ii < timelineCount; ii++) {
+					Timeline timeline = readTimeline(input, skeletonData, attachments);
+					if (timeline != null) timelines.add(timeline);
+				}
+				timelines.shrink();
+				skeletonData.animations.add(new Animation(name, timelines, duration));
+			}
+		} catch (BufferUnderflowException ex) {
+			throw new SerializationException("Error reading skeleton snapshot.", ex);
+		} catch (IndexOutOfBoundsException ex) {
+			throw new SerializationException("Error reading skeleton snapshot.", ex);
+		}
+
+		skeletonData.bones.shrink();
+		skeletonData.slots.shrink();
+		skeletonData.skins.shrink();
+		skeletonData.events.shrink();
+		skeletonData.animations.shrink();
+		skeletonData.ikConstraints.shrink();
+		return skeletonData;
+	}
+
+	/** @return May be null if the attachment loader did not create the attachment. */
+	private Attachment readAttachment (SkeletonInput input, SkeletonData skeletonData, Skin[] skins, Attachment[] attachments) {
+		Skin skin = skins[input.readInt(true)];
+		String name = input.readString();
+
+		AttachmentType type = AttachmentType.values[input.readByte()];
+		switch (type) {
+		case region: {
+			String path = input.readString();
+			RegionAttachment region = attachmentLoader.newRegionAttachment(skin, name, path);
+			if (region == null) {
+				input.skip(4 * 11);
+				return null;
+			}
+			region.setPath(path);
+			region.setX(input.readFloat());
+			region.setY(input.readFloat());
+			region.setScaleX(input.readFloat());
+			region.setScaleY(input.readFloat());
+			region.setRotation(input.readFloat());
+			region.setWidth(input.readFloat());
+			region.setHeight(input.readFloat());
+			readColor(input, region.getColor());
+			region.updateOffset();
+			return region;
+		}
+		case mesh:
+		case linkedmesh: {
+			String path = input.readString();
+			MeshAttachment mesh = attachmentLoader.newMeshAttachment(skin, name, path);
+			boolean skip = mesh == null;
+			if (skip) mesh = new MeshAttachment(name); // Read the values, but don't return the mesh.
+			mesh.setPath(path);
+			readColor(input, mesh.getColor());
+			mesh.setWidth(input.readFloat());
+			mesh.setHeight(input.readFloat());
+			mesh.setInheritDeform(input.readBoolean());
+			if (type == AttachmentType.linkedmesh) {
+				MeshAttachment parent = (MeshAttachment)attachments[input.readInt(true)];
+				if (skip || parent == null) return null;
+				float width = mesh.getWidth(), height = mesh.getHeight();
+				mesh.setParentMesh(parent);
+				mesh.setWidth(width);
+				mesh.setHeight(height);
+			} else {
+				readVertices(input, mesh);
+				mesh.setRegionUVs(readFloats(input));
+				mesh.setTriangles(readShorts(input));
+				mesh.setHullLength(input.readInt(true));
+				mesh.setEdges(readShorts(input));
+			}
+			if (skip) return null;
+			mesh.updateUVs();
+			return mesh;
+		}
+		case boundingbox: {
+			BoundingBoxAttachment box = attachmentLoader.newBoundingBoxAttachment(skin, name);
+			boolean skip = box == null;
+			if (skip) box = new BoundingBoxAttachment(name);
+			readVertices(input, box);
+			readColor(input, box.getColor());
+			return skip ? null : box;
+		}
+		case path: {
+			PathAttachment path = attachmentLoader.newPathAttachment(skin, name);
+			boolean skip = path == null;
+			if (skip) path = new PathAttachment(name);
+			path.setClosed(input.readBoolean());
+			path.setConstantSpeed(input.readBoolean());
+			readVertices(input, path);
+			path.setLengths(readFloats(input));
+			readColor(input, path.getColor());
+			return skip ? null : path;
+		}
+		case point: {
+			PointAttachment point = attachmentLoader.newPointAttachment(skin, name);
+			if (point == null) {
+				input.skip(4 * 7);
+				return null;
+			}
+			point.setX(input.readFloat());
+			point.setY(input.readFloat());
+			point.setRotation(input.readFloat());
+			readColor(input, point.getColor());
+			return point;
+		}
+		case clipping: {
+			ClippingAttachment clip = attachmentLoader.newClippingAttachment(skin, name);
+			boolean skip = clip == null;
+			if (skip) clip = new ClippingAttachment(name);
+			int endSlotIndex = input.readInt(true);
+			if (endSlotIndex != 0) clip.setEndSlot(skeletonData.slots.get(endSlotIndex - 1));
+			readVertices(input, clip);
+			readColor(input, clip.getColor());
+			return skip ? null : clip;
+		}
+		}
+		return null;
+	}
+
+	private void readVertices (SkeletonInput input, VertexAttachment attachment) {
+		attachment.setBones(readInts(input));
+		attachment.setVertices(readFloats(input));
+		attachment.setWorldVerticesLength(input.readInt(true));
+	}
+
+	/** @return May be null if the timeline's attachment was not created by the attachment loader. */
+	private Timeline readTimeline (SkeletonInput input, SkeletonData skeletonData, Attachment[] attachments) {
+		int type = input.readByte();
+		switch (type) {
+		case ROTATE: {
+			int boneIndex = input.readInt(true);
+			RotateTimeline timeline = new RotateTimeline(input.readInt(true));
+			timeline.boneIndex = boneIndex;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		case TRANSLATE:
+		case SCALE:
+		case SHEAR: {
+			int boneIndex = input.readInt(true), frameCount = input.readInt(true);
+			TranslateTimeline timeline;
+			if (type == SCALE)
+				timeline = new ScaleTimeline(frameCount);
+			else if (type == SHEAR)
+				timeline = new ShearTimeline(frameCount);
+			else
+				timeline = new TranslateTimeline(frameCount);
+			timeline.boneIndex = boneIndex;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		case ATTACHMENT: {
+			int slotIndex = input.readInt(true);
+			AttachmentTimeline timeline = new AttachmentTimeline(input.readInt(true));
+			timeline.slotIndex = slotIndex;
+			float[] frames = timeline.getFrames();
+			input.readFloats(frames, 0, frames.length);
+			String[] attachmentNames = timeline.getAttachmentNames();
+			for (int i = 0, n = attachmentNames.length; i < n; i++)
+				attachmentNames[i] = input.readString();
+			return timeline;
+		}
+		case COLOR: {
+			int slotIndex = input.readInt(true);
+			ColorTimeline timeline = new ColorTimeline(input.readInt(true));
+			timeline.slotIndex = slotIndex;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		case TWO_COLOR: {
+			int slotIndex = input.readInt(true);
+			TwoColorTimeline timeline = new TwoColorTimeline(input.readInt(true));
+			timeline.slotIndex = slotIndex;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		case DEFORM: {
+			int slotIndex = input.readInt(true);
+			VertexAttachment attachment = (VertexAttachment)attachments[input.readInt(true)];
+			DeformTimeline timeline = new DeformTimeline(input.readInt(true));
+			timeline.slotIndex = slotIndex;
+			timeline.attachment = attachment;
+			float[] frames = timeline.getFrames();
+			readFrames(input, timeline, frames);
+			for (int i = 0, n = frames.length; i < n; i++) {
+				int offset = input.readInt(true);
+				float[] vertices = readFloats(input);
+				timeline.setFrame(i, frames[i], vertices.length == 0 ? DeformTimeline.EMPTY : vertices, offset);
+			}
+			return attachment == null ? null : timeline;
+		}
+		case DRAW_ORDER: {
+			DrawOrderTimeline timeline = new DrawOrderTimeline(input.readInt(true));
+			float[] frames = timeline.getFrames();
+			input.readFloats(frames, 0, frames.length);
+			int[][] drawOrders = timeline.getDrawOrders();
+			for (int i = 0, n = drawOrders.length; i < n; i++)
+				drawOrders[i] = readInts(input);
+			return timeline;
+		}
+		case EVENT: {
+			EventTimeline timeline = new EventTimeline(input.readInt(true));
+			float[] frames = timeline.getFrames();
+			input.readFloats(frames, 0, frames.length);
+			for (int i = 0, n = frames.length; i < n; i++) {
+				Event event = new Event(frames[i], skeletonData.events.get(input.readInt(true)));
+				event.intValue = input.readInt(false);
+				event.floatValue = input.readFloat();
+				event.stringValue = input.readString();
+				timeline.setFrame(i, event);
+			}
+			return timeline;
+		}
+		case IK_CONSTRAINT: {
+			int index = input.readInt(true);
+			IkConstraintTimeline timeline = new IkConstraintTimeline(input.readInt(true));
+			timeline.ikConstraintIndex = index;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		case TRANSFORM_CONSTRAINT: {
+			int index = input.readInt(true);
+			TransformConstraintTimeline timeline = new TransformConstraintTimeline(input.readInt(true));
+			timeline.transformConstraintIndex = index;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		case PATH_CONSTRAINT_POSITION:
+		case PATH_CONSTRAINT_SPACING: {
+			int index = input.readInt(true), frameCount = input.readInt(true);
+			PathConstraintPositionTimeline timeline = type == PATH_CONSTRAINT_SPACING ? new PathConstraintSpacingTimeline(frameCount)
+				: new PathConstraintPositionTimeline(frameCount);
+			timeline.pathConstraintIndex = index;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		case PATH_CONSTRAINT_MIX: {
+			int index = input.readInt(true);
+			PathConstraintMixTimeline timeline = new PathConstraintMixTimeline(input.readInt(true));
+			timeline.pathConstraintIndex = index;
+			readFrames(input, timeline, timeline.getFrames());
+			return timeline;
+		}
+		}
+		throw new SerializationException("Unknown timeline type: " + type);
+	}
+
+	private void readFrames (SkeletonInput input, CurveTimeline timeline, float[] frames) {
+		input.readFloats(frames, 0, frames.length);
+		if (input.readBoolean()) return; // All key frames are linear.
+		float[] curves = timeline.getCurves();
+		input.readFloats(curves, 0, curves.length);
+	}
+
+	private void readBones (SkeletonInput input, Array<BoneData> bones, Array<BoneData> constraintBones) {
+		for (int i = 0, n = input.readInt(true); i < n; i++)
+			constraintBones.add(bones.get(input.readInt(true)));
+	}
+
+	private void readColor (SkeletonInput input, Color color) {
+		color.set(input.readFloat(), input.readFloat(), input.readFloat(), input.readFloat());
+	}
+
+	/** @return May be null. */
+	private float[] readFloats (SkeletonInput input) {
+		int n = input.readInt(true) - 1;
+		if (n == -1) return null;
+		float[] array = new float[n];
+		input.readFloats(array, 0, n);
+		return array;
+	}
+
+	/** @return May be null. */
+	private short[] readShorts (SkeletonInput input) {
+		int n = input.readInt(true) - 1;
+		if (n == -1) return null;
+		short[] array = new short[n];
+		input.readShorts(array, 0, n);
+		return array;
+	}
+
+	/** @return May be null. */
+	private int[] readInts (SkeletonInput input) {
+		int n = input.readInt(true) - 1;
+		if (n == -1) return null;
+		int[] array = new int[n];
+		input.readInts(array, 0, n);
+		return array;
+	}
+
+	static private int checksum (ByteBuffer buffer) {
+		CRC32 crc = new CRC32();
+		if (buffer.hasArray())
+			crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		else {
+			buffer = buffer.duplicate();
+			byte[] bytes = new byte[Math.min(buffer.remaining(), 8192)];
+			while (buffer.hasRemaining()) {
+				int count = Math.min(buffer.remaining(), bytes.length);
+				buffer.get(bytes, 0, count);
+				crc.update(bytes, 0, count);
+			}
+		}
+		return (int)crc.getValue();
+	}
+
+	/** Reads the strings at the start of the snapshot once, then reads strings as an index into them. */
+	static class SnapshotInput extends SkeletonInput {
+		private final String[] strings;
+
+		SnapshotInput (ByteBuffer buffer) {
+			super(buffer, ByteOrder.LITTLE_ENDIAN);
+			String[] strings = new String[readInt(true) + 1];
+			for (int i = 1, n = strings.length; i < n; i++)
+				strings[i] = super.readString();
+			this.strings = strings;
+		}
+
+		/** @return May be null. */
+		public String readString () {
+			return strings[readInt(true)];
+		}
+	}
+
+	/** Encodes the snapshot into a growing heap buffer. Variable length ints and UTF-8 strings use the same encoding as
+	 * {@link SkeletonInput}. Strings are written as an index + 1 into {@link #strings}, so 0 is null. Arrays are written with their
+	 * length + 1, so 0 is null. */
+	static class SnapshotOutput {
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+		final Array<String> strings = new Array();
+		private final ObjectIntMap<String> stringIndices = new ObjectIntMap();
+
+		private void require (int bytes) {
+			if (buffer.remaining() >= bytes) return;
+			ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() << 1, buffer.position() + bytes))
+				.order(ByteOrder.LITTLE_ENDIAN);
+			buffer.flip();
+			newBuffer.put(buffer);
+			buffer = newBuffer;
+		}
+
+		public void writeByte (int value) {
+			require(1);
+			buffer.put((byte)value);
+		}
+
+		public void writeBoolean (boolean value) {
+			writeByte(value ? 1 : 0);
+		}
+
+		public void writeFloat (float value) {
+			require(4);
+			buffer.putFloat(value);
+		}
+
+		/** Writes a 1-5 byte variable length int.
+		 * @param optimizePositive If false, the value is zig zag encoded so small negative values use fewer bytes. */
+		public void writeInt (int value, boolean optimizePositive) {
+			if (!optimizePositive) value = (value << 1) ^ (value >> 31);
+			require(5);
+			ByteBuffer buffer = this.buffer;
+			while ((value & ~0x7F) != 0) {
+				buffer.put((byte)((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte)value);
+		}
+
+		public void writeColor (Color color) {
+			writeFloat(color.r);
+			writeFloat(color.g);
+			writeFloat(color.b);
+			writeFloat(color.a);
+		}
+
+		public void writeBones (Array<BoneData> bones) {
+			writeInt(bones.size, true);
+			for (int i = 0, n = bones.size; i < n; i++)
+				writeInt(bones.get(i).index, true);
+		}
+
+		/** Writes the values without their length. */
+		public void writeFloats (float[] values, int count) {
+			require(count << 2);
+			buffer.asFloatBuffer().put(values, 0, count);
+			buffer.position(buffer.position() + (count << 2));
+		}
+
+		/** @param values May be null. */
+		public void writeFloats (float[] values) {
+			if (values == null) {
+				writeInt(0, true);
+				return;
+			}
+			writeInt(values.length + 1, true);
+			writeFloats(values, values.length);
+		}
+
+		/** @param values May be null. */
+		public void writeShorts (short[] values) {
+			if (values == null) {
+				writeInt(0, true);
+				return;
+			}
+			writeInt(values.length + 1, true);
+			require(values.length << 1);
+			buffer.asShortBuffer().put(values);
+			buffer.position(buffer.position() + (values.length << 1));
+		}
+
+		/** @param values May be null. */
+		public void writeInts (int[] values) {
+			if (values == null) {
+				writeInt(0, true);
+				return;
+			}
+			writeInt(values.length + 1, true);
+			require(values.length << 2);
+			buffer.asIntBuffer().put(values);
+			buffer.position(buffer.position() + (values.length << 2));
+		}
+
+		/** @param value May be null. */
+		public void writeString (String value) {
+			if (value == null) {
+				writeInt(0, true);
+				return;
+			}
+			int index = stringIndices.get(value, -1);
+			if (index == -1) {
+				index = strings.size;
+				strings.add(value);
+				stringIndices.put(value, index);
+			}
+			writeInt(index + 1, true);
+		}
+
+		public void writeBytes (byte[] bytes, int count) {
+			require(count);
+			buffer.put(bytes, 0, count);
+		}
+
+		public void writeUtf8 (String value) {
+			int charCount = value.length(), byteCount = 0;
+			for (int i = 0; i < charCount; i++) {
+				int c = value.charAt(i);
+				byteCount += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+			}
+			writeInt(byteCount + 1, true);
+			require(byteCount);
+			ByteBuffer buffer = this.buffer;
+			for (int i = 0; i < charCount; i++) {
+				int c = value.charAt(i);
+				if (c < 0x80)
+					buffer.put((byte)c);
+				else if (c < 0x800) {
+					buffer.put((byte)(0xC0 | c >> 6));
+					buffer.put((byte)(0x80 | c & 0x3F));
+				} else {
+					buffer.put((byte)(0xE0 | c >> 12));
+					buffer.put((byte)(0x80 | c >> 6 & 0x3F));
+					buffer.put((byte)(0x80 | c & 0x3F));
+				}
+			}
+		}
+	}
+}
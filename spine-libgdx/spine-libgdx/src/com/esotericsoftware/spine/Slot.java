@@ -108,6 +108,7 @@ public class Slot {
 		this.attachment = attachment;
 		attachmentTime = bone.skeleton.time;
 		attachmentVertices.clear();
+		bone.skeleton.attachmentChanges++;
 	}
 
 	/** The time that has elapsed since the last time the attachment was set or cleared. Relies on Skeleton
@@ -141,6 +142,7 @@ public class Slot {
 			setAttachment(null);
 		else {
 			attachment = null;
+			bone.skeleton.attachmentChanges++;
 			setAttachment(bone.skeleton.getAttachment(data.index, data.attachmentName));
 		}
 	}
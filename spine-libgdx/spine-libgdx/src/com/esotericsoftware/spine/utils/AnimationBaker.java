@@ -0,0 +1,174 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.DrawOrderTimeline;
+import com.esotericsoftware.spine.Animation.MixDirection;
+import com.esotericsoftware.spine.Animation.MixPose;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.attachments.Attachment;
+
+/** Samples an animation at a fixed rate, storing the world transform of every bone and the attachment, color and draw order of
+ * every slot for each sample. A {@link BakedSkeleton} can then be posed from the samples without applying timelines, computing
+ * world transforms or applying constraints.
+ * <p>
+ * Baking trades memory for CPU and is intended for many skeletons playing the same animations without mixing, such as
+ * background crowds. Deform timelines and events are not baked. */
+public class AnimationBaker {
+	/** Bakes the animation using the specified skeleton, which determines the skin. The skeleton's pose, position and flip are
+	 * changed and must be set afterward if the skeleton is used for other purposes. The samples are taken with the skeleton at
+	 * 0,0 and not flipped.
+	 * @param fps The number of samples per second. */
+	public BakedAnimation bake (Skeleton skeleton, Animation animation, float fps) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+		if (fps <= 0) throw new IllegalArgumentException("fps must be > 0: " + fps);
+
+		float duration = animation.getDuration();
+		int frameCount = (int)Math.ceil(duration * fps) + 1;
+		Array<Bone> bones = skeleton.getBones();
+		Array<Slot> slots = skeleton.getSlots();
+		int boneCount = bones.size, slotCount = slots.size;
+
+		boolean darkColors = false;
+		for (int i = 0; i < slotCount; i++)
+			if (slots.get(i).getDarkColor() != null) darkColors = true;
+		boolean drawOrders = false;
+		for (Timeline timeline : animation.getTimelines())
+			if (timeline instanceof DrawOrderTimeline) drawOrders = true;
+
+		BakedAnimation baked = new BakedAnimation(animation, fps, frameCount, boneCount, slotCount, darkColors, drawOrders);
+		float[] world = baked.world;
+		short[] attachmentIndices = baked.attachmentIndices;
+		int[] colors = baked.colors, darkColorValues = baked.darkColors;
+		short[] drawOrderIndices = baked.drawOrders;
+		Array<Attachment> attachments = baked.attachments;
+
+		skeleton.setPosition(0, 0);
+		skeleton.setFlip(false, false);
+		for (int frame = 0, w = 0, s = 0; frame < frameCount; frame++) {
+			float time = Math.min(frame / fps, duration);
+			skeleton.setToSetupPose();
+			animation.apply(skeleton, time, time, false, null, 1, MixPose.setup, MixDirection.in);
+			skeleton.updateWorldTransform();
+
+			for (int i = 0; i < boneCount; i++, w += 6) {
+				Bone bone = bones.get(i);
+				world[w] = bone.getA();
+				world[w + 1] = bone.getB();
+				world[w + 2] = bone.getC();
+				world[w + 3] = bone.getD();
+				world[w + 4] = bone.getWorldX();
+				world[w + 5] = bone.getWorldY();
+			}
+
+			Array<Slot> drawOrder = skeleton.getDrawOrder();
+			for (int i = 0; i < slotCount; i++, s++) {
+				Slot slot = slots.get(i);
+				Attachment attachment = slot.getAttachment();
+				if (attachment == null)
+					attachmentIndices[s] = -1;
+				else {
+					int index = attachments.indexOf(attachment, true);
+					if (index == -1) {
+						index = attachments.size;
+						attachments.add(attachment);
+					}
+					attachmentIndices[s] = (short)index;
+				}
+				colors[s] = Color.rgba8888(slot.getColor());
+				if (darkColorValues != null && slot.getDarkColor() != null) darkColorValues[s] = Color.rgb888(slot.getDarkColor());
+				if (drawOrderIndices != null) drawOrderIndices[s] = (short)drawOrder.get(i).getData().getIndex();
+			}
+		}
+		skeleton.setToSetupPose();
+		return baked;
+	}
+
+	/** The samples of an animation created by {@link AnimationBaker}. */
+	static public class BakedAnimation {
+		final Animation animation;
+		final float fps;
+		final int frameCount, boneCount, slotCount;
+		final float[] world; // a, b, c, d, worldX, worldY for each bone, for each frame.
+		final short[] attachmentIndices; // Index into attachments or -1, for each slot, for each frame.
+		final Array<Attachment> attachments = new Array();
+		final int[] colors; // RGBA8888 for each slot, for each frame.
+		final int[] darkColors; // RGB888 for each slot, for each frame. Null if no slot has a dark color.
+		final short[] drawOrders; // Slot index for each draw order position, for each frame. Null if no draw order timeline.
+
+		BakedAnimation (Animation animation, float fps, int frameCount, int boneCount, int slotCount, boolean darkColors,
+			boolean drawOrders) {
+			this.animation = animation;
+			this.fps = fps;
+			this.frameCount = frameCount;
+			this.boneCount = boneCount;
+			this.slotCount = slotCount;
+			world = new float[frameCount * boneCount * 6];
+			attachmentIndices = new short[frameCount * slotCount];
+			colors = new int[frameCount * slotCount];
+			this.darkColors = darkColors ? new int[frameCount * slotCount] : null;
+			this.drawOrders = drawOrders ? new short[frameCount * slotCount] : null;
+		}
+
+		public Animation getAnimation () {
+			return animation;
+		}
+
+		public float getDuration () {
+			return animation.getDuration();
+		}
+
+		/** The number of samples per second. */
+		public float getFps () {
+			return fps;
+		}
+
+		/** The number of samples. The last sample is at the animation's duration. */
+		public int getFrameCount () {
+			return frameCount;
+		}
+
+		/** Returns the approximate number of bytes used by the samples. */
+		public int getSize () {
+			int size = world.length * 4 + attachmentIndices.length * 2 + colors.length * 4;
+			if (darkColors != null) size += darkColors.length * 4;
+			if (drawOrders != null) size += drawOrders.length * 2;
+			return size;
+		}
+	}
+}
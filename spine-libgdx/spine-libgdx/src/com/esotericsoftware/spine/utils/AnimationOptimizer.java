@@ -0,0 +1,449 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.AttachmentTimeline;
+import com.esotericsoftware.spine.Animation.ColorTimeline;
+import com.esotericsoftware.spine.Animation.CompressedDeformTimeline;
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.DrawOrderTimeline;
+import com.esotericsoftware.spine.Animation.IkConstraintTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintMixTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintPositionTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintSpacingTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.ScaleTimeline;
+import com.esotericsoftware.spine.Animation.ShearTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TransformConstraintTimeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import com.esotericsoftware.spine.Animation.TwoColorTimeline;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+
+/** Reduces the work and memory used by animations after they are loaded.
+ * <p>
+ * {@link #collapseConstantTimelines(SkeletonData)} collapses timelines whose key frames all have the same values to a single key
+ * frame at the time of the first key. Applying a timeline with a single key frame does not search for the frame or compute the
+ * curve. Timelines are only collapsed when the result of applying them is exactly the same for every time, alpha,
+ * {@link Animation.MixPose} and {@link Animation.MixDirection}.
+ * <p>
+ * {@link #reduceKeyframes(SkeletonData)} removes key frames that are within a tolerance of the linear interpolation of the key
+ * frames around them, and {@link #compressDeformTimelines(SkeletonData)} replaces deform timelines with
+ * {@link CompressedDeformTimeline}. These change the animations by at most the tolerances and quantization error.
+ * <p>
+ * The animations must not be applied while they are being optimized. */
+public class AnimationOptimizer {
+	private float positionTolerance = 0.05f, angleTolerance = 0.05f, ratioTolerance = 0.001f;
+
+	/** Collapses the constant timelines of all the animations in the skeleton data.
+	 * @return The number of timelines collapsed. */
+	public int collapseConstantTimelines (SkeletonData skeletonData) {
+		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
+		int count = 0;
+		Array<Animation> animations = skeletonData.getAnimations();
+		for (int i = 0, n = animations.size; i < n; i++)
+			count += collapseConstantTimelines(skeletonData, animations.get(i));
+		return count;
+	}
+
+	/** Collapses the constant timelines of the animation, replacing them in {@link Animation#getTimelines()}.
+	 * @param skeletonData The skeleton data the animation was loaded for.
+	 * @return The number of timelines collapsed. */
+	public int collapseConstantTimelines (SkeletonData skeletonData, Animation animation) {
+		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
+		if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+		int count = 0;
+		Array<Timeline> timelines = animation.getTimelines();
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (!isConstant(skeletonData, timeline)) continue;
+			Timeline collapsed = newTimeline(timeline, 1);
+			copyFrame(timeline, 0, collapsed, 0);
+			timelines.set(i, collapsed);
+			count++;
+		}
+		return count;
+	}
+
+	/** Removes key frames from all the animations in the skeleton data.
+	 * @return The number of key frames removed.
+	 * @see #reduceKeyframes(Animation) */
+	public int reduceKeyframes (SkeletonData skeletonData) {
+		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
+		int count = 0;
+		Array<Animation> animations = skeletonData.getAnimations();
+		for (int i = 0, n = animations.size; i < n; i++)
+			count += reduceKeyframes(animations.get(i));
+		return count;
+	}
+
+	/** Removes key frames that have linear interpolation before and after them and whose values are within the tolerance of the
+	 * linear interpolation between the key frames that are kept around them. Timelines with removed key frames are replaced in
+	 * {@link Animation#getTimelines()}. The first and last key frames are always kept.
+	 * @return The number of key frames removed. */
+	public int reduceKeyframes (Animation animation) {
+		if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+		int count = 0;
+		Array<Timeline> timelines = animation.getTimelines();
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (!(timeline instanceof CurveTimeline) || timeline instanceof CompressedDeformTimeline) continue;
+			CurveTimeline curveTimeline = (CurveTimeline)timeline;
+			int frameCount = curveTimeline.getFrameCount();
+			if (frameCount < 3) continue;
+
+			boolean[] keep = new boolean[frameCount];
+			keep[0] = true;
+			keep[frameCount - 1] = true;
+			int kept = 2;
+			for (int frame = 1, previous = 0; frame < frameCount - 1; frame++) {
+				if (curveTimeline.getCurveType(frame - 1) != CurveTimeline.LINEAR
+					|| curveTimeline.getCurveType(frame) != CurveTimeline.LINEAR || !isLinear(timeline, previous, frame, frame + 1)) {
+					keep[frame] = true;
+					kept++;
+					previous = frame;
+				}
+			}
+			if (kept == frameCount) continue;
+
+			Timeline reduced = newTimeline(timeline, kept);
+			float[] curves = curveTimeline.getCurves(), reducedCurves = ((CurveTimeline)reduced).getCurves();
+			int curveSize = curves.length / (frameCount - 1);
+			for (int frame = 0, reducedFrame = 0; frame < frameCount; frame++) {
+				if (!keep[frame]) continue;
+				copyFrame(timeline, frame, reduced, reducedFrame);
+				// Key frames between kept key frames were linear, so only the curve of adjacent key frames is copied.
+				if (frame < frameCount - 1 && keep[frame + 1])
+					System.arraycopy(curves, frame * curveSize, reducedCurves, reducedFrame * curveSize, curveSize);
+				reducedFrame++;
+			}
+			timelines.set(i, reduced);
+			count += frameCount - kept;
+		}
+		return count;
+	}
+
+	/** Replaces the deform timelines of all the animations in the skeleton data with {@link CompressedDeformTimeline}.
+	 * @return The number of timelines compressed. */
+	public int compressDeformTimelines (SkeletonData skeletonData) {
+		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
+		int count = 0;
+		Array<Animation> animations = skeletonData.getAnimations();
+		for (int i = 0, n = animations.size; i < n; i++)
+			count += compressDeformTimelines(animations.get(i));
+		return count;
+	}
+
+	/** Replaces the deform timelines of the animation with {@link CompressedDeformTimeline}. Key frames should be
+	 * {@link #reduceKeyframes(Animation) reduced} first, as the quantization error could prevent key frames from being removed.
+	 * @return The number of timelines compressed. */
+	public int compressDeformTimelines (Animation animation) {
+		if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+		int count = 0;
+		Array<Timeline> timelines = animation.getTimelines();
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (!(timeline instanceof DeformTimeline)) continue;
+			timelines.set(i, new CompressedDeformTimeline((DeformTimeline)timeline));
+			count++;
+		}
+		return count;
+	}
+
+	/** Returns true if the timeline can be replaced by a timeline with only its first key frame without changing how it is
+	 * applied. */
+	private boolean isConstant (SkeletonData skeletonData, Timeline timeline) {
+		if (timeline instanceof AttachmentTimeline) {
+			String[] names = ((AttachmentTimeline)timeline).getAttachmentNames();
+			if (names.length < 2) return false;
+			for (int i = 1, n = names.length; i < n; i++) {
+				String name = names[i];
+				if (name == null ? names[0] != null : !name.equals(names[0])) return false;
+			}
+			return true;
+		}
+
+		if (timeline instanceof DeformTimeline) {
+			DeformTimeline deform = (DeformTimeline)timeline;
+			float[][] vertices = deform.getVertices();
+			int[] offsets = deform.getOffsets();
+			if (vertices.length < 2) return false;
+			float[] first = vertices[0];
+			for (int i = 0, n = first.length; i < n; i++)
+				if (Float.isInfinite(first[i]) || Float.isNaN(first[i])) return false;
+			for (int i = 1, n = vertices.length; i < n; i++) {
+				if (vertices[i] == first && offsets[i] == offsets[0]) continue;
+				for (int ii = 0, nn = deform.getVertexCount(); ii < nn; ii++)
+					if (Float.floatToIntBits(value(deform, i, ii)) != Float.floatToIntBits(value(deform, 0, ii))) return false;
+			}
+			return true;
+		}
+
+		if (timeline instanceof DrawOrderTimeline) {
+			int[][] drawOrders = ((DrawOrderTimeline)timeline).getDrawOrders();
+			if (drawOrders.length < 2) return false;
+			for (int i = 1, n = drawOrders.length; i < n; i++)
+				if (!Arrays.equals(drawOrders[i], drawOrders[0])) return false;
+			return true;
+		}
+
+		float[] frames = frames(timeline);
+		if (frames == null) return false; // Event timelines are never collapsed.
+		int entries = entries(timeline), length = frames.length;
+		if (length < entries * 2) return false;
+		for (int i = 1; i < entries; i++)
+			if (Float.isInfinite(frames[i]) || Float.isNaN(frames[i])) return false;
+		for (int f = entries; f < length; f += entries)
+			for (int i = 1; i < entries; i++)
+				if (Float.floatToIntBits(frames[f + i]) != Float.floatToIntBits(frames[i])) return false;
+		// Interpolating between identical finite values gives the same value. Interpolated rotations are also wrapped between -180
+		// and 180, the last frame is not.
+		if (timeline instanceof RotateTimeline) {
+			float degrees = frames[1];
+			return isWrapped(degrees)
+				&& isWrapped(degrees + skeletonData.getBones().get(((RotateTimeline)timeline).getBoneIndex()).getRotation());
+		}
+		return true;
+	}
+
+	/** Returns true if the values of the middle key frame are within the tolerance of the linear interpolation between the start
+	 * and end key frames, and so are the values of any key frames between the start and middle. */
+	private boolean isLinear (Timeline timeline, int start, int middle, int end) {
+		if (timeline instanceof DeformTimeline) {
+			DeformTimeline deform = (DeformTimeline)timeline;
+			float[] frames = deform.getFrames();
+			int vertexCount = deform.getVertexCount();
+			for (int frame = start + 1; frame <= middle; frame++) {
+				float percent = (frames[frame] - frames[start]) / (frames[end] - frames[start]);
+				for (int i = 0; i < vertexCount; i++) {
+					float from = value(deform, start, i);
+					float error = from + (value(deform, end, i) - from) * percent - value(deform, frame, i);
+					if (!(Math.abs(error) <= positionTolerance)) return false;
+				}
+			}
+			return true;
+		}
+
+		float[] frames = frames(timeline);
+		int entries = entries(timeline);
+		int s = start * entries, e = end * entries;
+		for (int frame = start + 1; frame <= middle; frame++) {
+			int f = frame * entries;
+			float percent = (frames[f] - frames[s]) / (frames[e] - frames[s]);
+			for (int i = 1; i < entries; i++) {
+				float from = frames[s + i], to = frames[e + i], value = frames[f + i];
+				float error;
+				if (timeline instanceof RotateTimeline) {
+					error = wrap(from + wrap(to - from) * percent - value);
+				} else if (timeline instanceof IkConstraintTimeline && i == 2) {
+					if (from != value || to != value) return false; // Bend direction.
+					continue;
+				} else
+					error = from + (to - from) * percent - value;
+				if (!(Math.abs(error) <= tolerance(timeline))) return false;
+			}
+		}
+		return true;
+	}
+
+	private float tolerance (Timeline timeline) {
+		if (timeline instanceof RotateTimeline || timeline instanceof ShearTimeline) return angleTolerance;
+		if (timeline instanceof ScaleTimeline) return ratioTolerance;
+		if (timeline instanceof TranslateTimeline || timeline instanceof PathConstraintPositionTimeline) return positionTolerance;
+		return ratioTolerance; // Colors and constraint mixes.
+	}
+
+	/** Returns the key frame values of the timeline, or null for timelines which are not supported. */
+	static private float[] frames (Timeline timeline) {
+		if (timeline instanceof RotateTimeline) return ((RotateTimeline)timeline).getFrames();
+		if (timeline instanceof TranslateTimeline) return ((TranslateTimeline)timeline).getFrames();
+		if (timeline instanceof ColorTimeline) return ((ColorTimeline)timeline).getFrames();
+		if (timeline instanceof TwoColorTimeline) return ((TwoColorTimeline)timeline).getFrames();
+		if (timeline instanceof AttachmentTimeline) return ((AttachmentTimeline)timeline).getFrames();
+		if (timeline instanceof DeformTimeline) return ((DeformTimeline)timeline).getFrames();
+		if (timeline instanceof DrawOrderTimeline) return ((DrawOrderTimeline)timeline).getFrames();
+		if (timeline instanceof IkConstraintTimeline) return ((IkConstraintTimeline)timeline).getFrames();
+		if (timeline instanceof TransformConstraintTimeline) return ((TransformConstraintTimeline)timeline).getFrames();
+		if (timeline instanceof PathConstraintPositionTimeline) return ((PathConstraintPositionTimeline)timeline).getFrames();
+		if (timeline instanceof PathConstraintMixTimeline) return ((PathConstraintMixTimeline)timeline).getFrames();
+		return null;
+	}
+
+	/** Returns the number of {@link #frames(Timeline)} values for each key frame. */
+	static private int entries (Timeline timeline) {
+		if (timeline instanceof RotateTimeline) return RotateTimeline.ENTRIES;
+		if (timeline instanceof TranslateTimeline) return TranslateTimeline.ENTRIES;
+		if (timeline instanceof ColorTimeline) return ColorTimeline.ENTRIES;
+		if (timeline instanceof TwoColorTimeline) return TwoColorTimeline.ENTRIES;
+		if (timeline instanceof IkConstraintTimeline) return IkConstraintTimeline.ENTRIES;
+		if (timeline instanceof TransformConstraintTimeline) return TransformConstraintTimeline.ENTRIES;
+		if (timeline instanceof PathConstraintPositionTimeline) return PathConstraintPositionTimeline.ENTRIES;
+		if (timeline instanceof PathConstraintMixTimeline) return PathConstraintMixTimeline.ENTRIES;
+		return 1; // Attachment, deform and draw order timelines store only the time.
+	}
+
+	/** Returns a new timeline of the same type and for the same bone, slot, attachment or constraint, with linear interpolation
+	 * for all key frames. */
+	static private Timeline newTimeline (Timeline timeline, int frameCount) {
+		if (timeline instanceof RotateTimeline) {
+			RotateTimeline result = new RotateTimeline(frameCount);
+			result.setBoneIndex(((RotateTimeline)timeline).getBoneIndex());
+			return result;
+		}
+		if (timeline instanceof TranslateTimeline) {
+			TranslateTimeline result;
+			if (timeline instanceof ScaleTimeline)
+				result = new ScaleTimeline(frameCount);
+			else if (timeline instanceof ShearTimeline)
+				result = new ShearTimeline(frameCount);
+			else
+				result = new TranslateTimeline(frameCount);
+			result.setBoneIndex(((TranslateTimeline)timeline).getBoneIndex());
+			return result;
+		}
+		if (timeline instanceof ColorTimeline) {
+			ColorTimeline result = new ColorTimeline(frameCount);
+			result.setSlotIndex(((ColorTimeline)timeline).getSlotIndex());
+			return result;
+		}
+		if (timeline instanceof TwoColorTimeline) {
+			TwoColorTimeline result = new TwoColorTimeline(frameCount);
+			result.setSlotIndex(((TwoColorTimeline)timeline).getSlotIndex());
+			return result;
+		}
+		if (timeline instanceof AttachmentTimeline) {
+			AttachmentTimeline result = new AttachmentTimeline(frameCount);
+			result.setSlotIndex(((AttachmentTimeline)timeline).getSlotIndex());
+			return result;
+		}
+		if (timeline instanceof DeformTimeline) {
+			DeformTimeline deform = (DeformTimeline)timeline, result = new DeformTimeline(frameCount);
+			result.setSlotIndex(deform.getSlotIndex());
+			result.setAttachment(deform.getAttachment());
+			return result;
+		}
+		if (timeline instanceof DrawOrderTimeline) return new DrawOrderTimeline(frameCount);
+		if (timeline instanceof IkConstraintTimeline) {
+			IkConstraintTimeline result = new IkConstraintTimeline(frameCount);
+			result.setIkConstraintIndex(((IkConstraintTimeline)timeline).getIkConstraintIndex());
+			return result;
+		}
+		if (timeline instanceof TransformConstraintTimeline) {
+			TransformConstraintTimeline result = new TransformConstraintTimeline(frameCount);
+			result.setTransformConstraintIndex(((TransformConstraintTimeline)timeline).getTransformConstraintIndex());
+			return result;
+		}
+		if (timeline instanceof PathConstraintPositionTimeline) {
+			PathConstraintPositionTimeline result = timeline instanceof PathConstraintSpacingTimeline
+				? new PathConstraintSpacingTimeline(frameCount) : new PathConstraintPositionTimeline(frameCount);
+			result.setPathConstraintIndex(((PathConstraintPositionTimeline)timeline).getPathConstraintIndex());
+			return result;
+		}
+		if (timeline instanceof PathConstraintMixTimeline) {
+			PathConstraintMixTimeline result = new PathConstraintMixTimeline(frameCount);
+			result.setPathConstraintIndex(((PathConstraintMixTimeline)timeline).getPathConstraintIndex());
+			return result;
+		}
+		throw new IllegalArgumentException("Unsupported timeline: " + timeline.getClass().getName());
+	}
+
+	/** Copies the time and values of a key frame, but not its curve. */
+	static private void copyFrame (Timeline from, int fromFrame, Timeline to, int toFrame) {
+		int entries = entries(from);
+		System.arraycopy(frames(from), fromFrame * entries, frames(to), toFrame * entries, entries);
+		if (from instanceof AttachmentTimeline)
+			((AttachmentTimeline)to).getAttachmentNames()[toFrame] = ((AttachmentTimeline)from).getAttachmentNames()[fromFrame];
+		else if (from instanceof DeformTimeline) {
+			DeformTimeline deform = (DeformTimeline)from;
+			((DeformTimeline)to).setFrame(toFrame, deform.getFrames()[fromFrame], deform.getVertices()[fromFrame],
+				deform.getOffsets()[fromFrame]);
+		}
+		else if (from instanceof DrawOrderTimeline)
+			((DrawOrderTimeline)to).getDrawOrders()[toFrame] = ((DrawOrderTimeline)from).getDrawOrders()[fromFrame];
+	}
+
+	/** Returns the vertex position or deform offset of a deform timeline key frame. */
+	static private float value (DeformTimeline timeline, int frame, int i) {
+		float[] vertices = timeline.getVertices()[frame];
+		int index = i - timeline.getOffsets()[frame];
+		if (index >= 0 && index < vertices.length) return vertices[index];
+		VertexAttachment attachment = timeline.getAttachment();
+		return attachment.getBones() == null ? attachment.getVertices()[i] : 0;
+	}
+
+	/** Returns the rotation wrapped between -180 and 180, as done when rotations are interpolated. */
+	static private float wrap (float degrees) {
+		return degrees - (16384 - (int)(16384.499999999996 - degrees / 360)) * 360;
+	}
+
+	static private boolean isWrapped (float degrees) {
+		return wrap(degrees) == degrees;
+	}
+
+	/** The maximum error for translation, path constraint position and spacing, and deform values removed by
+	 * {@link #reduceKeyframes(Animation)}. Default is 0.05. */
+	public float getPositionTolerance () {
+		return positionTolerance;
+	}
+
+	public void setPositionTolerance (float positionTolerance) {
+		if (positionTolerance < 0) throw new IllegalArgumentException("positionTolerance must be >= 0: " + positionTolerance);
+		this.positionTolerance = positionTolerance;
+	}
+
+	/** The maximum error in degrees for rotation and shear values removed by {@link #reduceKeyframes(Animation)}. Default is
+	 * 0.05. */
+	public float getAngleTolerance () {
+		return angleTolerance;
+	}
+
+	public void setAngleTolerance (float angleTolerance) {
+		if (angleTolerance < 0) throw new IllegalArgumentException("angleTolerance must be >= 0: " + angleTolerance);
+		this.angleTolerance = angleTolerance;
+	}
+
+	/** The maximum error for scale, color and constraint mix values removed by {@link #reduceKeyframes(Animation)}. Default is
+	 * 0.001. */
+	public float getRatioTolerance () {
+		return ratioTolerance;
+	}
+
+	public void setRatioTolerance (float ratioTolerance) {
+		if (ratioTolerance < 0) throw new IllegalArgumentException("ratioTolerance must be >= 0: " + ratioTolerance);
+		this.ratioTolerance = ratioTolerance;
+	}
+}
@@ -0,0 +1,188 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.utils.AnimationBaker.BakedAnimation;
+
+/** Poses a skeleton from a {@link BakedAnimation} by looking up the samples for the current time, instead of using an
+ * {@link com.esotericsoftware.spine.AnimationState}. The skeleton's world transforms are set directly, so
+ * {@link Skeleton#updateWorldTransform()} must not be called afterward.
+ * <p>
+ * The skeleton's position is applied to the sampled world transforms. Flipping reflects the sampled world transforms, which
+ * matches {@link Skeleton#updateWorldTransform()} for bones that inherit all transforms from their parent. */
+public class BakedSkeleton {
+	private final Skeleton skeleton;
+	private BakedAnimation animation;
+	private float time, timeScale = 1;
+	private boolean loop = true, interpolate;
+
+	public BakedSkeleton (Skeleton skeleton) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		this.skeleton = skeleton;
+	}
+
+	/** Sets the animation and resets the time to 0.
+	 * @param animation May be null. Must have been baked with a skeleton from the same skeleton data. */
+	public void setAnimation (BakedAnimation animation, boolean loop) {
+		if (animation != null
+			&& (animation.boneCount != skeleton.getBones().size || animation.slotCount != skeleton.getSlots().size))
+			throw new IllegalArgumentException("animation was not baked for this skeleton: " + animation.animation.getName());
+		this.animation = animation;
+		this.loop = loop;
+		time = 0;
+	}
+
+	/** Advances the time, scaled by {@link #getTimeScale()}. */
+	public void update (float delta) {
+		time += delta * timeScale;
+	}
+
+	/** Sets the skeleton's bone world transforms, slot attachments, colors and draw order from the samples for the current
+	 * time. */
+	public void apply () {
+		BakedAnimation animation = this.animation;
+		if (animation == null) return;
+
+		float duration = animation.getDuration(), time = this.time;
+		if (loop && duration != 0)
+			time %= duration;
+		else if (time > duration) //
+			time = duration;
+		if (time < 0) time = 0;
+		float position = time * animation.fps;
+		int frame = interpolate ? (int)position : (int)(position + 0.5f), lastFrame = animation.frameCount - 1;
+		if (frame >= lastFrame) {
+			frame = lastFrame;
+			position = frame;
+		}
+
+		Skeleton skeleton = this.skeleton;
+		float fx = skeleton.getFlipX() ? -1 : 1, fy = skeleton.getFlipY() ? -1 : 1, x = skeleton.getX(), y = skeleton.getY();
+		Array<Bone> bones = skeleton.getBones();
+		float[] world = animation.world;
+		int boneCount = animation.boneCount, w = frame * boneCount * 6;
+		if (interpolate && frame < lastFrame) {
+			float alpha = position - frame;
+			for (int i = 0, next = w + boneCount * 6; i < boneCount; i++, w += 6, next += 6) {
+				Bone bone = bones.get(i);
+				bone.setA(fx * (world[w] + (world[next] - world[w]) * alpha));
+				bone.setB(fx * (world[w + 1] + (world[next + 1] - world[w + 1]) * alpha));
+				bone.setC(fy * (world[w + 2] + (world[next + 2] - world[w + 2]) * alpha));
+				bone.setD(fy * (world[w + 3] + (world[next + 3] - world[w + 3]) * alpha));
+				bone.setWorldX(fx * (world[w + 4] + (world[next + 4] - world[w + 4]) * alpha) + x);
+				bone.setWorldY(fy * (world[w + 5] + (world[next + 5] - world[w + 5]) * alpha) + y);
+				bone.setAppliedValid(false);
+			}
+		} else {
+			for (int i = 0; i < boneCount; i++, w += 6) {
+				Bone bone = bones.get(i);
+				bone.setA(fx * world[w]);
+				bone.setB(fx * world[w + 1]);
+				bone.setC(fy * world[w + 2]);
+				bone.setD(fy * world[w + 3]);
+				bone.setWorldX(fx * world[w + 4] + x);
+				bone.setWorldY(fy * world[w + 5] + y);
+				bone.setAppliedValid(false);
+			}
+		}
+
+		Array<Slot> slots = skeleton.getSlots();
+		Array<Attachment> attachments = animation.attachments;
+		short[] attachmentIndices = animation.attachmentIndices, drawOrders = animation.drawOrders;
+		int[] colors = animation.colors, darkColors = animation.darkColors;
+		int slotCount = animation.slotCount, s = frame * slotCount;
+		for (int i = 0; i < slotCount; i++, s++) {
+			Slot slot = slots.get(i);
+			int index = attachmentIndices[s];
+			slot.setAttachment(index == -1 ? null : attachments.get(index));
+			Color.rgba8888ToColor(slot.getColor(), colors[s]);
+			if (darkColors != null && slot.getDarkColor() != null) Color.rgb888ToColor(slot.getDarkColor(), darkColors[s]);
+		}
+		if (drawOrders != null) {
+			Array<Slot> drawOrder = skeleton.getDrawOrder();
+			for (int i = 0, d = frame * slotCount; i < slotCount; i++, d++)
+				drawOrder.set(i, slots.get(drawOrders[d]));
+		}
+	}
+
+	public Skeleton getSkeleton () {
+		return skeleton;
+	}
+
+	/** @return May be null. */
+	public BakedAnimation getAnimation () {
+		return animation;
+	}
+
+	/** The current time in seconds. */
+	public float getTime () {
+		return time;
+	}
+
+	public void setTime (float time) {
+		this.time = time;
+	}
+
+	/** Multiplier for the delta time passed to {@link #update(float)}. Defaults to 1. */
+	public float getTimeScale () {
+		return timeScale;
+	}
+
+	public void setTimeScale (float timeScale) {
+		this.timeScale = timeScale;
+	}
+
+	/** If true, the animation repeats after its duration. Defaults to true. */
+	public boolean getLoop () {
+		return loop;
+	}
+
+	public void setLoop (boolean loop) {
+		this.loop = loop;
+	}
+
+	/** If true, bone world transforms are interpolated linearly between samples, which is smoother for low sample rates, and
+	 * slot attachments, colors and draw order use the previous sample. If false, the nearest sample is used. Defaults to
+	 * false. */
+	public boolean getInterpolate () {
+		return interpolate;
+	}
+
+	public void setInterpolate (boolean interpolate) {
+		this.interpolate = interpolate;
+	}
+}
@@ -0,0 +1,164 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonRenderer;
+
+/** Generates the vertices for many skeletons in parallel using a {@link ForkJoinPool}, then draws them on the calling thread.
+ * <p>
+ * The skeletons are split into contiguous ranges. Each range is recorded by a pool task using its own {@link SkeletonRenderer}
+ * and {@link RenderCommandBuffer}, so no scratch state is shared between threads. The buffers are drawn in order, so the output
+ * is the same as drawing each skeleton with a single renderer, regardless of which threads recorded them.
+ * <p>
+ * Vertex effects are not supported, as they are not thread safe. The skeletons must not be modified during
+ * {@link #record(Array)}. */
+public class ParallelSkeletonRenderer {
+	private final ForkJoinPool pool;
+	private boolean premultipliedAlpha;
+	private int minBatchSize = 4;
+
+	private final RecursiveAction root = new RecursiveAction() {
+		protected void compute () {
+			invokeAll(batches);
+		}
+	};
+	private final Array<Batch> batchPool = new Array();
+	Batch[] batches = new Batch[0];
+	Array<Skeleton> skeletons;
+
+	/** Creates a renderer with a new pool using all available processors. */
+	public ParallelSkeletonRenderer () {
+		this(new ForkJoinPool());
+	}
+
+	public ParallelSkeletonRenderer (ForkJoinPool pool) {
+		if (pool == null) throw new IllegalArgumentException("pool cannot be null.");
+		this.pool = pool;
+	}
+
+	/** Records the draw calls for the skeletons using the pool, replacing the previous recording. The skeletons' world
+	 * transforms must be up to date. If an exception is thrown by a pool thread, it is rethrown. */
+	public void record (Array<Skeleton> skeletons) {
+		if (skeletons == null) throw new IllegalArgumentException("skeletons cannot be null.");
+		int count = skeletons.size;
+		int batchSize = Math.max(minBatchSize, (count + pool.getParallelism() * 4 - 1) / (pool.getParallelism() * 4));
+		int batchCount = (count + batchSize - 1) / batchSize;
+		while (batchPool.size < batchCount)
+			batchPool.add(new Batch());
+		if (batches.length != batchCount) {
+			batches = new Batch[batchCount];
+			for (int i = 0; i < batchCount; i++)
+				batches[i] = batchPool.get(i);
+		}
+		for (int i = 0, start = 0; i < batchCount; i++, start += batchSize) {
+			Batch batch = batches[i];
+			batch.reinitialize();
+			batch.start = start;
+			batch.end = Math.min(start + batchSize, count);
+			batch.renderer.setPremultipliedAlpha(premultipliedAlpha);
+			batch.buffer.setPremultipliedAlpha(premultipliedAlpha);
+		}
+		if (batchCount == 0) return;
+		this.skeletons = skeletons;
+		try {
+			root.reinitialize();
+			pool.invoke(root);
+		} finally {
+			this.skeletons = null;
+		}
+	}
+
+	/** Draws the recorded skeletons in order. The batch's blend function is changed. */
+	public void draw (TwoColorPolygonBatch batch) {
+		Batch[] batches = this.batches;
+		for (int i = 0, n = batches.length; i < n; i++)
+			batches[i].buffer.draw(batch);
+	}
+
+	/** Draws the recorded skeletons in order without dark colors. The batch's blend function is changed. */
+	public void draw (PolygonSpriteBatch batch) {
+		Batch[] batches = this.batches;
+		for (int i = 0, n = batches.length; i < n; i++)
+			batches[i].buffer.draw(batch);
+	}
+
+	/** The number of buffers holding the last recording. */
+	public int getBufferCount () {
+		return batches.length;
+	}
+
+	/** Returns a buffer holding the draw calls for a contiguous range of the recorded skeletons. */
+	public RenderCommandBuffer getBuffer (int index) {
+		return batches[index].buffer;
+	}
+
+	public ForkJoinPool getPool () {
+		return pool;
+	}
+
+	public boolean getPremultipliedAlpha () {
+		return premultipliedAlpha;
+	}
+
+	public void setPremultipliedAlpha (boolean premultipliedAlpha) {
+		this.premultipliedAlpha = premultipliedAlpha;
+	}
+
+	/** The minimum number of skeletons recorded by a single pool task. Defaults to 4. */
+	public int getMinBatchSize () {
+		return minBatchSize;
+	}
+
+	public void setMinBatchSize (int minBatchSize) {
+		if (minBatchSize < 1) throw new IllegalArgumentException("minBatchSize must be > 0: " + minBatchSize);
+		this.minBatchSize = minBatchSize;
+	}
+
+	class Batch extends RecursiveAction {
+		final SkeletonRenderer renderer = new SkeletonRenderer();
+		final RenderCommandBuffer buffer = new RenderCommandBuffer();
+		int start, end;
+
+		protected void compute () {
+			RenderCommandBuffer buffer = this.buffer;
+			buffer.clear();
+			Object[] skeletons = ParallelSkeletonRenderer.this.skeletons.items;
+			for (int i = start, n = end; i < n; i++)
+				renderer.draw(buffer, (Skeleton)skeletons[i]);
+		}
+	}
+}
@@ -0,0 +1,323 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.MixDirection;
+import com.esotericsoftware.spine.Animation.MixPose;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.attachments.Attachment;
+
+/** Caches skeleton poses by animation, quantized time, skin and flip, so many skeletons playing the same animation at the same time
+ * without mixing can share the world transforms computed for the first of them. On a hit, the cached pose is copied to the
+ * skeleton instead of applying the animation and computing world transforms.
+ * <p>
+ * Poses are stored with the skeleton at 0,0 and the skeleton's position is added to the cached world transforms. Each slot's
+ * {@link Slot#getAttachmentVertices() deform} is cached with the pose. Events are not cached.
+ * <p>
+ * The least recently used poses are discarded when the cache is larger than its memory budget. */
+public class PoseCache {
+	private final LinkedHashMap<Key, Pose> poses = new LinkedHashMap(16, 0.75f, true);
+	private final Key lookup = new Key();
+	private float fps;
+	private long maxBytes, bytes;
+	private int hits, misses, evictions;
+
+	/** @param fps The number of poses per second of animation time. Times are rounded to the nearest pose.
+	 * @param maxBytes The approximate maximum memory used by the cached poses. */
+	public PoseCache (float fps, long maxBytes) {
+		setFps(fps);
+		setMaxBytes(maxBytes);
+	}
+
+	/** Poses the skeleton for the animation at the specified time, using the cached pose if there is one. Otherwise the
+	 * animation is applied to the skeleton's setup pose with the skeleton at 0,0, the world transforms are
+	 * computed and the result is cached. {@link Skeleton#updateWorldTransform()} must not be called afterward.
+	 * @param time The animation time in seconds.
+	 * @param loop If true, the time wraps around the animation's duration. */
+	public void apply (Skeleton skeleton, Animation animation, float time, boolean loop) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+
+		float duration = animation.getDuration();
+		if (loop && duration != 0)
+			time %= duration;
+		else if (time > duration) //
+			time = duration;
+		if (time < 0) time = 0;
+
+		Key lookup = this.lookup;
+		lookup.set(animation, (int)(time * fps + 0.5f), skeleton.getSkin(), skeleton.getFlipX(), skeleton.getFlipY());
+		Pose pose = poses.get(lookup);
+		if (pose != null)
+			hits++;
+		else {
+			misses++;
+			pose = compute(skeleton, animation, Math.min(lookup.frame / fps, duration));
+			Key key = new Key();
+			key.set(animation, lookup.frame, lookup.skin, lookup.flipX, lookup.flipY);
+			poses.put(key, pose);
+			bytes += pose.bytes;
+			evict();
+		}
+		pose.apply(skeleton);
+	}
+
+	private Pose compute (Skeleton skeleton, Animation animation, float time) {
+		float x = skeleton.getX(), y = skeleton.getY();
+		skeleton.setPosition(0, 0);
+		skeleton.setToSetupPose();
+		animation.apply(skeleton, time, time, false, null, 1, MixPose.setup, MixDirection.in);
+		skeleton.updateWorldTransform();
+		Pose pose = new Pose(skeleton);
+		skeleton.setPosition(x, y);
+		return pose;
+	}
+
+	private void evict () {
+		Iterator<Pose> iter = poses.values().iterator();
+		while (bytes > maxBytes && iter.hasNext()) {
+			bytes -= iter.next().bytes;
+			iter.remove();
+			evictions++;
+		}
+	}
+
+	/** Removes all cached poses. The counters are not reset. */
+	public void clear () {
+		poses.clear();
+		bytes = 0;
+	}
+
+	/** Removes the cached poses for the specified animation, eg after its timelines have been changed. */
+	public void clear (Animation animation) {
+		Iterator<Entry<Key, Pose>> iter = poses.entrySet().iterator();
+		while (iter.hasNext()) {
+			Entry<Key, Pose> entry = iter.next();
+			if (entry.getKey().animation == animation) {
+				bytes -= entry.getValue().bytes;
+				iter.remove();
+			}
+		}
+	}
+
+	public void resetCounters () {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	/** The number of poses per second of animation time. Changing this clears the cache. */
+	public float getFps () {
+		return fps;
+	}
+
+	public void setFps (float fps) {
+		if (fps <= 0) throw new IllegalArgumentException("fps must be > 0: " + fps);
+		this.fps = fps;
+		clear();
+	}
+
+	/** The approximate maximum memory used by the cached poses, in bytes. */
+	public long getMaxBytes () {
+		return maxBytes;
+	}
+
+	public void setMaxBytes (long maxBytes) {
+		if (maxBytes < 0) throw new IllegalArgumentException("maxBytes must be >= 0: " + maxBytes);
+		this.maxBytes = maxBytes;
+		evict();
+	}
+
+	/** The approximate memory used by the cached poses, in bytes. */
+	public long getBytes () {
+		return bytes;
+	}
+
+	/** The number of cached poses. */
+	public int getSize () {
+		return poses.size();
+	}
+
+	/** The number of times a cached pose was used. */
+	public int getHits () {
+		return hits;
+	}
+
+	/** The number of times a pose was computed because it was not cached. */
+	public int getMisses () {
+		return misses;
+	}
+
+	/** The number of poses discarded to stay within the memory budget. */
+	public int getEvictions () {
+		return evictions;
+	}
+
+	static private class Key {
+		Animation animation;
+		int frame;
+		Skin skin;
+		boolean flipX, flipY;
+
+		void set (Animation animation, int frame, Skin skin, boolean flipX, boolean flipY) {
+			this.animation = animation;
+			this.frame = frame;
+			this.skin = skin;
+			this.flipX = flipX;
+			this.flipY = flipY;
+		}
+
+		public int hashCode () {
+			int result = 31 * animation.hashCode() + frame;
+			result = 31 * result + (skin == null ? 0 : skin.hashCode());
+			return 4 * result + (flipX ? 2 : 0) + (flipY ? 1 : 0);
+		}
+
+		public boolean equals (Object object) {
+			if (object == null) return false;
+			Key other = (Key)object;
+			return animation == other.animation && frame == other.frame && skin == other.skin && flipX == other.flipX
+				&& flipY == other.flipY;
+		}
+	}
+
+	/** The immutable world transforms and slot state for a single time. */
+	static private class Pose {
+		final float[] world;
+		final Attachment[] attachments;
+		final float[][] deforms;
+		final int[] colors, darkColors;
+		final short[] drawOrder;
+		final int bytes;
+
+		Pose (Skeleton skeleton) {
+			Array<Bone> bones = skeleton.getBones();
+			int boneCount = bones.size;
+			float[] world = new float[boneCount * 6];
+			for (int i = 0, w = 0; i < boneCount; i++, w += 6) {
+				Bone bone = bones.get(i);
+				world[w] = bone.getA();
+				world[w + 1] = bone.getB();
+				world[w + 2] = bone.getC();
+				world[w + 3] = bone.getD();
+				world[w + 4] = bone.getWorldX();
+				world[w + 5] = bone.getWorldY();
+			}
+			this.world = world;
+
+			Array<Slot> slots = skeleton.getSlots(), drawOrder = skeleton.getDrawOrder();
+			int slotCount = slots.size;
+			attachments = new Attachment[slotCount];
+			colors = new int[slotCount];
+			float[][] deforms = null;
+			int[] darkColors = null;
+			short[] drawOrderIndices = null;
+			int deformBytes = 0;
+			for (int i = 0; i < slotCount; i++) {
+				Slot slot = slots.get(i);
+				attachments[i] = slot.getAttachment();
+				FloatArray deform = slot.getAttachmentVertices();
+				if (deform.size > 0) {
+					if (deforms == null) deforms = new float[slotCount][];
+					deforms[i] = deform.toArray();
+					deformBytes += 16 + deform.size * 4;
+				}
+				colors[i] = Color.rgba8888(slot.getColor());
+				if (slot.getDarkColor() != null) {
+					if (darkColors == null) darkColors = new int[slotCount];
+					darkColors[i] = Color.rgb888(slot.getDarkColor());
+				}
+				if (drawOrder.get(i) != slot && drawOrderIndices == null) {
+					drawOrderIndices = new short[slotCount];
+					for (int ii = 0; ii < slotCount; ii++)
+						drawOrderIndices[ii] = (short)drawOrder.get(ii).getData().getIndex();
+				}
+			}
+			this.deforms = deforms;
+			this.darkColors = darkColors;
+			this.drawOrder = drawOrderIndices;
+
+			int bytes = 64 + world.length * 4 + slotCount * 12 + deformBytes;
+			if (deforms != null) bytes += slotCount * 4;
+			if (darkColors != null) bytes += slotCount * 4;
+			if (drawOrderIndices != null) bytes += slotCount * 2;
+			this.bytes = bytes;
+		}
+
+		void apply (Skeleton skeleton) {
+			float x = skeleton.getX(), y = skeleton.getY();
+			Array<Bone> bones = skeleton.getBones();
+			float[] world = this.world;
+			for (int i = 0, w = 0, n = bones.size; i < n; i++, w += 6) {
+				Bone bone = bones.get(i);
+				bone.setA(world[w]);
+				bone.setB(world[w + 1]);
+				bone.setC(world[w + 2]);
+				bone.setD(world[w + 3]);
+				bone.setWorldX(world[w + 4] + x);
+				bone.setWorldY(world[w + 5] + y);
+				bone.setAppliedValid(false);
+			}
+
+			Array<Slot> slots = skeleton.getSlots();
+			float[][] deforms = this.deforms;
+			int[] colors = this.colors, darkColors = this.darkColors;
+			for (int i = 0, n = slots.size; i < n; i++) {
+				Slot slot = slots.get(i);
+				slot.setAttachment(attachments[i]);
+				FloatArray deform = slot.getAttachmentVertices();
+				deform.clear();
+				if (deforms != null && deforms[i] != null) deform.addAll(deforms[i]);
+				Color.rgba8888ToColor(slot.getColor(), colors[i]);
+				if (darkColors != null && slot.getDarkColor() != null) Color.rgb888ToColor(slot.getDarkColor(), darkColors[i]);
+			}
+			Array<Slot> drawOrder = skeleton.getDrawOrder();
+			if (this.drawOrder != null) {
+				for (int i = 0, n = slots.size; i < n; i++)
+					drawOrder.set(i, slots.get(this.drawOrder[i]));
+			} else {
+				for (int i = 0, n = slots.size; i < n; i++)
+					drawOrder.set(i, slots.get(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,209 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ShortArray;
+import com.esotericsoftware.spine.SkeletonRenderer;
+
+/** Records the draw calls of {@link SkeletonRenderer#draw(RenderCommandBuffer, com.esotericsoftware.spine.Skeleton)} so they
+ * can be replayed to a {@link TwoColorPolygonBatch} or {@link PolygonSpriteBatch} later. Recording does not use OpenGL, so
+ * buffers can be filled on other threads or without a GL context, eg for tests.
+ * <p>
+ * Vertices are stored with 6 floats per vertex: x, y, light color, dark color, u and v. Each draw's triangles index the vertices
+ * of that draw. Consecutive draws with the same texture and blend function are grouped into a single command. The arrays are
+ * reused after {@link #clear()}, so recording does not allocate once they are large enough. */
+public class RenderCommandBuffer {
+	/** The number of ints per command: blend source function, blend destination function, first draw and draw count. */
+	static public final int COMMAND_SIZE = 4;
+	/** The number of ints per draw: vertices offset, vertices count, triangles offset and triangles count. */
+	static public final int DRAW_SIZE = 4;
+
+	final FloatArray vertices = new FloatArray(1024);
+	final ShortArray triangles = new ShortArray(1024);
+	final IntArray draws = new IntArray();
+	final IntArray commands = new IntArray();
+	final Array<Texture> textures = new Array();
+	private final FloatArray tempVertices = new FloatArray(0);
+	private int blendSrcFunc = GL20.GL_SRC_ALPHA, blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+	private boolean premultipliedAlpha;
+
+	/** Removes all commands and resets the blend function. */
+	public void clear () {
+		vertices.clear();
+		triangles.clear();
+		draws.clear();
+		commands.clear();
+		textures.clear();
+		blendSrcFunc = GL20.GL_SRC_ALPHA;
+		blendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+	}
+
+	/** Sets the blend function for subsequent draws. */
+	public void setBlendFunction (int srcFunc, int dstFunc) {
+		blendSrcFunc = srcFunc;
+		blendDstFunc = dstFunc;
+	}
+
+	public int getBlendSrcFunc () {
+		return blendSrcFunc;
+	}
+
+	public int getBlendDstFunc () {
+		return blendDstFunc;
+	}
+
+	/** Records a draw, copying the vertices and triangles.
+	 * @param texture May be null, eg when attachments have no texture regions. Draws without a texture are recorded but not
+	 *           replayed.
+	 * @param verticesCount The number of floats, 6 per vertex. */
+	public void draw (Texture texture, float[] vertices, int verticesOffset, int verticesCount, short[] triangles,
+		int trianglesOffset, int trianglesCount) {
+		IntArray commands = this.commands;
+		int last = commands.size - COMMAND_SIZE;
+		if (last < 0 || textures.peek() != texture || commands.items[last] != blendSrcFunc
+			|| commands.items[last + 1] != blendDstFunc) {
+			commands.add(blendSrcFunc);
+			commands.add(blendDstFunc);
+			commands.add(draws.size / DRAW_SIZE);
+			commands.add(0);
+			textures.add(texture);
+			last = commands.size - COMMAND_SIZE;
+		}
+		commands.items[last + 3]++;
+
+		draws.add(this.vertices.size);
+		draws.add(verticesCount);
+		draws.add(this.triangles.size);
+		draws.add(trianglesCount);
+		this.vertices.addAll(vertices, verticesOffset, verticesCount);
+		this.triangles.addAll(triangles, trianglesOffset, trianglesCount);
+	}
+
+	/** Draws the recorded commands. The batch's blend function is changed. */
+	public void draw (TwoColorPolygonBatch batch) {
+		batch.setPremultipliedAlpha(premultipliedAlpha);
+		for (int i = 0, n = textures.size; i < n; i++)
+			drawCommand(batch, i);
+	}
+
+	/** Draws the recorded commands without dark colors. The batch's blend function is changed. */
+	public void draw (PolygonSpriteBatch batch) {
+		for (int i = 0, n = textures.size; i < n; i++)
+			drawCommand(batch, i);
+	}
+
+	/** Draws a single command. The batch's blend function is changed but its premultiplied alpha setting is not. */
+	public void drawCommand (TwoColorPolygonBatch batch, int index) {
+		Texture texture = textures.get(index);
+		if (texture == null) return;
+		float[] vertices = this.vertices.items;
+		short[] triangles = this.triangles.items;
+		int[] commands = this.commands.items, draws = this.draws.items;
+		int c = index * COMMAND_SIZE;
+		batch.setBlendFunction(commands[c], commands[c + 1]);
+		for (int d = commands[c + 2] * DRAW_SIZE, dn = d + commands[c + 3] * DRAW_SIZE; d < dn; d += DRAW_SIZE)
+			batch.draw(texture, vertices, draws[d], draws[d + 1], triangles, draws[d + 2], draws[d + 3]);
+	}
+
+	/** Draws a single command without dark colors. The batch's blend function is changed. */
+	public void drawCommand (PolygonSpriteBatch batch, int index) {
+		Texture texture = textures.get(index);
+		if (texture == null) return;
+		float[] vertices = this.vertices.items;
+		short[] triangles = this.triangles.items;
+		int[] commands = this.commands.items, draws = this.draws.items;
+		int c = index * COMMAND_SIZE;
+		batch.setBlendFunction(commands[c], commands[c + 1]);
+		for (int d = commands[c + 2] * DRAW_SIZE, dn = d + commands[c + 3] * DRAW_SIZE; d < dn; d += DRAW_SIZE) {
+			int offset = draws[d], count = draws[d + 1];
+			float[] temp = tempVertices.setSize(count / 6 * 5);
+			for (int v = offset, t = 0, vn = offset + count; v < vn; v += 6, t += 5) {
+				temp[t] = vertices[v];
+				temp[t + 1] = vertices[v + 1];
+				temp[t + 2] = vertices[v + 2];
+				temp[t + 3] = vertices[v + 4];
+				temp[t + 4] = vertices[v + 5];
+			}
+			batch.draw(texture, temp, 0, tempVertices.size, triangles, draws[d + 2], draws[d + 3]);
+		}
+	}
+
+	/** Specifies whether the texture colors have premultiplied alpha, which is passed to
+	 * {@link TwoColorPolygonBatch#setPremultipliedAlpha(boolean)} when replayed. */
+	public boolean getPremultipliedAlpha () {
+		return premultipliedAlpha;
+	}
+
+	public void setPremultipliedAlpha (boolean premultipliedAlpha) {
+		this.premultipliedAlpha = premultipliedAlpha;
+	}
+
+	/** The number of commands, each with a single texture and blend function. */
+	public int getCommandCount () {
+		return textures.size;
+	}
+
+	/** The number of recorded draws. */
+	public int getDrawCount () {
+		return draws.size / DRAW_SIZE;
+	}
+
+	/** The texture for each command. */
+	public Array<Texture> getTextures () {
+		return textures;
+	}
+
+	/** {@link #COMMAND_SIZE} ints for each command. */
+	public IntArray getCommands () {
+		return commands;
+	}
+
+	/** {@link #DRAW_SIZE} ints for each draw. */
+	public IntArray getDraws () {
+		return draws;
+	}
+
+	/** 6 floats for each vertex of every draw. */
+	public FloatArray getVertices () {
+		return vertices;
+	}
+
+	/** The triangles of every draw. */
+	public ShortArray getTriangles () {
+		return triangles;
+	}
+}
@@ -0,0 +1,199 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Draws the commands of many {@link RenderCommandBuffer buffers} in an order that minimizes the number of times the texture,
+ * blend function or premultiplied alpha setting changes, each of which flushes the batch.
+ * <p>
+ * The commands of each buffer are always drawn in the order they were recorded, so a skeleton's draw order is kept. Commands from
+ * different buffers are interleaved, so the caller must only add buffers whose relative draw order does not matter, eg skeletons
+ * that do not overlap or that are on the same layer. Sorting is greedy: all commands at the front of the buffers that use the
+ * current state are drawn, then the state used by the most buffers' next command is chosen.
+ * <p>
+ * The counters can be compared to measure the reduction. The real number of flushes is available from
+ * {@link TwoColorPolygonBatch#renderCalls} or {@link PolygonSpriteBatch#renderCalls}. */
+public class RenderCommandSorter {
+	final Array<RenderCommandBuffer> buffers = new Array();
+	/** Pairs of buffer index and command index. */
+	final IntArray order = new IntArray();
+	private final IntArray heads = new IntArray(), states = new IntArray(), counts = new IntArray();
+	private int flushCount, unsortedFlushCount;
+	private boolean sorted;
+
+	/** Adds a buffer to be drawn. The buffer must not be changed until after it is drawn. */
+	public void add (RenderCommandBuffer buffer) {
+		if (buffer == null) throw new IllegalArgumentException("buffer cannot be null.");
+		buffers.add(buffer);
+		sorted = false;
+	}
+
+	/** Removes all buffers. */
+	public void clear () {
+		buffers.clear();
+		order.clear();
+		flushCount = 0;
+		unsortedFlushCount = 0;
+		sorted = true;
+	}
+
+	/** Computes the draw order. This is done automatically by the draw methods if buffers were added since the last sort. */
+	public void sort () {
+		sorted = true;
+		order.clear();
+		Object[] buffers = this.buffers.items;
+		int bufferCount = this.buffers.size;
+
+		// Count the flushes when the buffers are drawn one after another.
+		RenderCommandBuffer lastBuffer = null;
+		int lastCommand = -1, changes = 0;
+		for (int b = 0; b < bufferCount; b++) {
+			RenderCommandBuffer buffer = (RenderCommandBuffer)buffers[b];
+			for (int c = 0, n = buffer.textures.size; c < n; c++) {
+				if (lastBuffer == null || !sameState(buffer, c, lastBuffer, lastCommand)) changes++;
+				lastBuffer = buffer;
+				lastCommand = c;
+			}
+		}
+		unsortedFlushCount = changes;
+
+		int[] heads = this.heads.setSize(bufferCount);
+		int remaining = 0;
+		for (int b = 0; b < bufferCount; b++) {
+			if (((RenderCommandBuffer)buffers[b]).textures.size == 0)
+				heads[b] = -1;
+			else {
+				heads[b] = 0;
+				remaining++;
+			}
+		}
+
+		changes = 0;
+		while (remaining > 0) {
+			// Choose the state used by the most buffers' next command.
+			int[] states = this.states.setSize(bufferCount * 2), counts = this.counts.setSize(bufferCount);
+			int stateCount = 0, best = 0;
+			outer:
+			for (int b = 0; b < bufferCount; b++) {
+				int head = heads[b];
+				if (head == -1) continue;
+				RenderCommandBuffer buffer = (RenderCommandBuffer)buffers[b];
+				for (int s = 0; s < stateCount; s++) {
+					if (sameState(buffer, head, (RenderCommandBuffer)buffers[states[s << 1]], states[(s << 1) + 1])) {
+						if (++counts[s] > counts[best]) best = s;
+						continue outer;
+					}
+				}
+				states[stateCount << 1] = b;
+				states[(stateCount << 1) + 1] = head;
+				counts[stateCount++] = 1;
+			}
+			RenderCommandBuffer stateBuffer = (RenderCommandBuffer)buffers[states[best << 1]];
+			int stateCommand = states[(best << 1) + 1];
+			changes++;
+
+			// Draw every command at the front of the buffers that uses the state.
+			for (int b = 0; b < bufferCount; b++) {
+				int head = heads[b];
+				if (head == -1) continue;
+				RenderCommandBuffer buffer = (RenderCommandBuffer)buffers[b];
+				while (sameState(buffer, head, stateBuffer, stateCommand)) {
+					order.add(b);
+					order.add(head);
+					if (++head == buffer.textures.size) {
+						head = -1;
+						remaining--;
+						break;
+					}
+				}
+				heads[b] = head;
+			}
+		}
+		flushCount = changes;
+	}
+
+	private boolean sameState (RenderCommandBuffer buffer1, int command1, RenderCommandBuffer buffer2, int command2) {
+		if (buffer1.textures.get(command1) != buffer2.textures.get(command2)) return false;
+		if (buffer1.getPremultipliedAlpha() != buffer2.getPremultipliedAlpha()) return false;
+		int[] commands1 = buffer1.commands.items, commands2 = buffer2.commands.items;
+		int c1 = command1 * RenderCommandBuffer.COMMAND_SIZE, c2 = command2 * RenderCommandBuffer.COMMAND_SIZE;
+		return commands1[c1] == commands2[c2] && commands1[c1 + 1] == commands2[c2 + 1];
+	}
+
+	/** Draws the commands of all buffers in sorted order. The batch's blend function and premultiplied alpha setting are
+	 * changed. */
+	public void draw (TwoColorPolygonBatch batch) {
+		if (!sorted) sort();
+		Object[] buffers = this.buffers.items;
+		int[] order = this.order.items;
+		for (int i = 0, n = this.order.size; i < n; i += 2) {
+			RenderCommandBuffer buffer = (RenderCommandBuffer)buffers[order[i]];
+			batch.setPremultipliedAlpha(buffer.getPremultipliedAlpha());
+			buffer.drawCommand(batch, order[i + 1]);
+		}
+	}
+
+	/** Draws the commands of all buffers in sorted order without dark colors. The batch's blend function is changed. */
+	public void draw (PolygonSpriteBatch batch) {
+		if (!sorted) sort();
+		Object[] buffers = this.buffers.items;
+		int[] order = this.order.items;
+		for (int i = 0, n = this.order.size; i < n; i += 2)
+			((RenderCommandBuffer)buffers[order[i]]).drawCommand(batch, order[i + 1]);
+	}
+
+	public Array<RenderCommandBuffer> getBuffers () {
+		return buffers;
+	}
+
+	/** The number of commands in all buffers. */
+	public int getCommandCount () {
+		if (!sorted) sort();
+		return order.size / 2;
+	}
+
+	/** The number of times the state changes when drawing in sorted order. This is the number of flushes, not counting flushes
+	 * when the batch is full. */
+	public int getFlushCount () {
+		if (!sorted) sort();
+		return flushCount;
+	}
+
+	/** The number of times the state would change if the buffers were drawn one after another, for comparison with
+	 * {@link #getFlushCount()}. */
+	public int getUnsortedFlushCount () {
+		if (!sorted) sort();
+		return unsortedFlushCount;
+	}
+}
@@ -0,0 +1,180 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.badlogic.gdx.utils.Array;
+import com.esotericsoftware.spine.AnimationState;
+import com.esotericsoftware.spine.AnimationState.AnimationStateListener;
+import com.esotericsoftware.spine.Skeleton;
+
+/** Updates, applies and computes the world transforms for many skeletons in parallel using a {@link ForkJoinPool}.
+ * <p>
+ * Each skeleton is updated on a single pool thread by {@link AnimationState#update(float)}, {@link AnimationState#apply(Skeleton)}
+ * and {@link Skeleton#updateWorldTransform()}. The animation states are set to
+ * {@link AnimationState#setDeferListenerNotifications(boolean) defer} listener notifications, which are delivered on the
+ * calling thread after all skeletons have been updated, in the order the skeletons were added. {@link AnimationStateListener}
+ * implementations therefore run on the calling thread, as they would without this class.
+ * <p>
+ * A skeleton or animation state must not be added more than once and must not be accessed by other threads during
+ * {@link #update(float)}. Skeletons and animation states may share {@link com.esotericsoftware.spine.SkeletonData} and
+ * {@link com.esotericsoftware.spine.AnimationStateData}. */
+public class SkeletonBatchUpdater {
+	private final ForkJoinPool pool;
+	final Array<Skeleton> skeletons = new Array();
+	final Array<AnimationState> states = new Array();
+	private int minBatchSize = 8;
+
+	private final RecursiveAction root = new RecursiveAction() {
+		protected void compute () {
+			invokeAll(batches);
+		}
+	};
+	Batch[] batches = new Batch[0];
+	float delta;
+
+	/** Creates an updater with a new pool using all available processors. */
+	public SkeletonBatchUpdater () {
+		this(new ForkJoinPool());
+	}
+
+	public SkeletonBatchUpdater (ForkJoinPool pool) {
+		if (pool == null) throw new IllegalArgumentException("pool cannot be null.");
+		this.pool = pool;
+	}
+
+	/** Adds a skeleton to be updated. Listener notifications for the state are deferred until they are delivered by
+	 * {@link #update(float)}.
+	 * @param state May be null to only compute the skeleton's world transforms. */
+	public void add (Skeleton skeleton, AnimationState state) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		skeletons.add(skeleton);
+		states.add(state);
+		if (state != null) state.setDeferListenerNotifications(true);
+	}
+
+	/** Removes a skeleton. Listener notifications queued for its animation state are delivered and are no longer deferred.
+	 * @return True if the skeleton was found. */
+	public boolean remove (Skeleton skeleton) {
+		int index = skeletons.indexOf(skeleton, true);
+		if (index == -1) return false;
+		skeletons.removeIndex(index);
+		AnimationState state = states.removeIndex(index);
+		if (state != null) {
+			state.setDeferListenerNotifications(false);
+			state.drainListenerNotifications();
+		}
+		return true;
+	}
+
+	/** Removes all skeletons. Listener notifications queued for their animation states are delivered and are no longer
+	 * deferred. */
+	public void clear () {
+		Array<AnimationState> states = this.states;
+		for (int i = 0, n = states.size; i < n; i++) {
+			AnimationState state = states.get(i);
+			if (state == null) continue;
+			state.setDeferListenerNotifications(false);
+			state.drainListenerNotifications();
+		}
+		skeletons.clear();
+		states.clear();
+	}
+
+	/** Updates and applies each animation state and computes each skeleton's world transforms using the pool, then delivers the
+	 * listener notifications on the calling thread. If an exception is thrown by a pool thread, it is rethrown and the listener
+	 * notifications remain queued. */
+	public void update (float delta) {
+		int count = skeletons.size;
+		if (count == 0) return;
+		this.delta = delta;
+
+		int batchSize = Math.max(minBatchSize, (count + pool.getParallelism() * 4 - 1) / (pool.getParallelism() * 4));
+		int batchCount = (count + batchSize - 1) / batchSize;
+		if (batches.length != batchCount) {
+			batches = new Batch[batchCount];
+			for (int i = 0; i < batchCount; i++)
+				batches[i] = new Batch();
+		}
+		for (int i = 0, start = 0; i < batchCount; i++, start += batchSize) {
+			Batch batch = batches[i];
+			batch.reinitialize();
+			batch.start = start;
+			batch.end = Math.min(start + batchSize, count);
+		}
+		root.reinitialize();
+		pool.invoke(root);
+
+		Object[] states = this.states.items;
+		for (int i = 0; i < count; i++) {
+			AnimationState state = (AnimationState)states[i];
+			if (state != null) state.drainListenerNotifications();
+		}
+	}
+
+	public ForkJoinPool getPool () {
+		return pool;
+	}
+
+	public Array<Skeleton> getSkeletons () {
+		return skeletons;
+	}
+
+	/** The minimum number of skeletons updated by a single pool task. Defaults to 8. */
+	public int getMinBatchSize () {
+		return minBatchSize;
+	}
+
+	public void setMinBatchSize (int minBatchSize) {
+		if (minBatchSize < 1) throw new IllegalArgumentException("minBatchSize must be > 0: " + minBatchSize);
+		this.minBatchSize = minBatchSize;
+	}
+
+	class Batch extends RecursiveAction {
+		int start, end;
+
+		protected void compute () {
+			float delta = SkeletonBatchUpdater.this.delta;
+			Object[] skeletons = SkeletonBatchUpdater.this.skeletons.items, states = SkeletonBatchUpdater.this.states.items;
+			for (int i = start, n = end; i < n; i++) {
+				Skeleton skeleton = (Skeleton)skeletons[i];
+				AnimationState state = (AnimationState)states[i];
+				if (state != null) {
+					state.update(delta);
+					state.apply(skeleton);
+				}
+				skeleton.updateWorldTransform();
+			}
+		}
+	}
+}
@@ -0,0 +1,389 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonBounds;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+
+/** A uniform grid over the bounding box polygons of many {@link SkeletonBounds}, for hit detection across many skeletons
+ * without testing every polygon.
+ * <p>
+ * After the skeletons' bounds are updated using {@link SkeletonBounds#update(Skeleton, boolean)}, {@link #update()} inserts
+ * each polygon into the grid cells its axis aligned bounding box overlaps. Queries only test the polygons in the cells they
+ * touch. Polygons that overlap more than {@link #getMaxCells()} cells are not inserted into the grid and are tested by every
+ * query.
+ * <p>
+ * The cell size should be about the size of a typical bounding box polygon. */
+public class SkeletonBoundsIndex {
+	private final float cellSize, invCellSize;
+	private int maxCells = 64;
+
+	final Array<Skeleton> skeletons = new Array();
+	final Array<SkeletonBounds> bounds = new Array();
+
+	private final LongMap<IntArray> cells = new LongMap();
+	private final Pool<IntArray> cellPool = new Pool() {
+		protected IntArray newObject () {
+			return new IntArray(8);
+		}
+	};
+	private final IntArray large = new IntArray();
+	private final Array<Hit> hits = new Array();
+	private final FloatArray hitBounds = new FloatArray(); // minX, minY, maxX, maxY, ...
+	private int hitCount;
+	private int[] queries = new int[0];
+	private int query;
+
+	/** @param cellSize The width and height of each grid cell in world units. */
+	public SkeletonBoundsIndex (float cellSize) {
+		if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be > 0: " + cellSize);
+		this.cellSize = cellSize;
+		invCellSize = 1 / cellSize;
+	}
+
+	/** Adds a skeleton and the bounds that are updated for it. The polygons are not indexed until {@link #update()}. */
+	public void add (Skeleton skeleton, SkeletonBounds bounds) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		if (bounds == null) throw new IllegalArgumentException("bounds cannot be null.");
+		skeletons.add(skeleton);
+		this.bounds.add(bounds);
+	}
+
+	/** Removes a skeleton. The polygons remain indexed until {@link #update()}.
+	 * @return True if the skeleton was found. */
+	public boolean remove (Skeleton skeleton) {
+		int index = skeletons.indexOf(skeleton, true);
+		if (index == -1) return false;
+		skeletons.removeIndex(index);
+		bounds.removeIndex(index);
+		return true;
+	}
+
+	/** Removes all skeletons and indexed polygons. */
+	public void clear () {
+		skeletons.clear();
+		bounds.clear();
+		clearCells();
+		hitCount = 0;
+	}
+
+	private void clearCells () {
+		for (IntArray cell : cells.values())
+			cellPool.free(cell);
+		cells.clear();
+		large.clear();
+	}
+
+	/** Indexes the current polygons of all the skeletons' bounds. This must be called after the bounds are updated and before
+	 * querying. */
+	public void update () {
+		clearCells();
+		Array<Hit> hits = this.hits;
+		IntArray large = this.large;
+		float invCellSize = this.invCellSize;
+		int maxCells = this.maxCells;
+		int hitCount = 0;
+		for (int i = 0, n = skeletons.size; i < n; i++) {
+			Skeleton skeleton = skeletons.get(i);
+			SkeletonBounds bounds = this.bounds.get(i);
+			Array<BoundingBoxAttachment> boundingBoxes = bounds.getBoundingBoxes();
+			Array<FloatArray> polygons = bounds.getPolygons();
+			for (int ii = 0, nn = polygons.size; ii < nn; ii++) {
+				FloatArray polygon = polygons.get(ii);
+				if (polygon.size < 6) continue;
+				if (hitCount == hits.size) hits.add(new Hit());
+				Hit hit = hits.get(hitCount);
+				hit.skeleton = skeleton;
+				hit.bounds = bounds;
+				hit.boundingBox = boundingBoxes.get(ii);
+				hit.polygon = polygon;
+
+				float[] vertices = polygon.items;
+				float minX = vertices[0], minY = vertices[1], maxX = minX, maxY = minY;
+				for (int v = 2, vn = polygon.size; v < vn; v += 2) {
+					float x = vertices[v], y = vertices[v + 1];
+					minX = Math.min(minX, x);
+					minY = Math.min(minY, y);
+					maxX = Math.max(maxX, x);
+					maxY = Math.max(maxY, y);
+				}
+				float[] hitBounds = this.hitBounds.setSize((hitCount + 1) << 2);
+				int b = hitCount << 2;
+				hitBounds[b] = minX;
+				hitBounds[b + 1] = minY;
+				hitBounds[b + 2] = maxX;
+				hitBounds[b + 3] = maxY;
+
+				int startX = cell(minX * invCellSize), startY = cell(minY * invCellSize);
+				int endX = cell(maxX * invCellSize), endY = cell(maxY * invCellSize);
+				if ((long)(endX - startX + 1) * (endY - startY + 1) > maxCells)
+					large.add(hitCount);
+				else {
+					for (int cy = startY; cy <= endY; cy++)
+						for (int cx = startX; cx <= endX; cx++)
+							cellAdd(cx, cy, hitCount);
+				}
+				hitCount++;
+			}
+		}
+		this.hitCount = hitCount;
+		if (queries.length < hitCount) queries = new int[hits.size];
+	}
+
+	private void cellAdd (int cx, int cy, int hit) {
+		long key = key(cx, cy);
+		IntArray cell = cells.get(key);
+		if (cell == null) {
+			cell = cellPool.obtain();
+			cell.clear();
+			cells.put(key, cell);
+		}
+		cell.add(hit);
+	}
+
+	/** Returns the first polygon that contains the point, or null. The hit is valid until the next {@link #update()}. */
+	public Hit containsPoint (float x, float y) {
+		int hit = containsPoint(large, x, y);
+		if (hit != -1) return hits.get(hit);
+		IntArray cell = cells.get(key(cell(x * invCellSize), cell(y * invCellSize)));
+		if (cell != null) {
+			hit = containsPoint(cell, x, y);
+			if (hit != -1) return hits.get(hit);
+		}
+		return null;
+	}
+
+	private int containsPoint (IntArray candidates, float x, float y) {
+		int[] items = candidates.items;
+		float[] hitBounds = this.hitBounds.items;
+		for (int i = 0, n = candidates.size; i < n; i++) {
+			int hit = items[i], b = hit << 2;
+			if (x < hitBounds[b] || y < hitBounds[b + 1] || x > hitBounds[b + 2] || y > hitBounds[b + 3]) continue;
+			Hit h = hits.get(hit);
+			if (h.bounds.containsPoint(h.polygon, x, y)) return hit;
+		}
+		return -1;
+	}
+
+	/** Returns the first polygon found that intersects the line segment, using
+	 * {@link SkeletonBounds#intersectsSegment(FloatArray, float, float, float, float)}, or null. The cells are visited from the
+	 * first point to the second, but the hit is not necessarily the polygon closest to the first point. The hit is valid until the
+	 * next {@link #update()}. */
+	public Hit intersectsSegment (float x1, float y1, float x2, float y2) {
+		nextQuery();
+		int hit = intersectsSegment(large, x1, y1, x2, y2);
+		if (hit != -1) return hits.get(hit);
+
+		// Visit each cell the segment passes through.
+		float invCellSize = this.invCellSize;
+		int cx = cell(x1 * invCellSize), cy = cell(y1 * invCellSize);
+		int endX = cell(x2 * invCellSize), endY = cell(y2 * invCellSize);
+		float dx = x2 - x1, dy = y2 - y1;
+		int stepX = endX > cx ? 1 : -1, stepY = endY > cy ? 1 : -1;
+		float deltaX = dx == 0 ? Float.MAX_VALUE : cellSize / Math.abs(dx);
+		float deltaY = dy == 0 ? Float.MAX_VALUE : cellSize / Math.abs(dy);
+		float nextX = dx == 0 ? Float.MAX_VALUE : ((stepX > 0 ? cx + 1 : cx) * cellSize - x1) / dx;
+		float nextY = dy == 0 ? Float.MAX_VALUE : ((stepY > 0 ? cy + 1 : cy) * cellSize - y1) / dy;
+		while (true) {
+			IntArray cell = cells.get(key(cx, cy));
+			if (cell != null) {
+				hit = intersectsSegment(cell, x1, y1, x2, y2);
+				if (hit != -1) return hits.get(hit);
+			}
+			if (cx == endX) {
+				if (cy == endY) break;
+				cy += stepY;
+			} else if (cy == endY || nextX < nextY) {
+				cx += stepX;
+				nextX += deltaX;
+			} else {
+				cy += stepY;
+				nextY += deltaY;
+			}
+		}
+		return null;
+	}
+
+	private int intersectsSegment (IntArray candidates, float x1, float y1, float x2, float y2) {
+		float minX = Math.min(x1, x2), minY = Math.min(y1, y2), maxX = Math.max(x1, x2), maxY = Math.max(y1, y2);
+		int[] items = candidates.items, queries = this.queries;
+		float[] hitBounds = this.hitBounds.items;
+		int query = this.query;
+		for (int i = 0, n = candidates.size; i < n; i++) {
+			int hit = items[i], b = hit << 2;
+			if (queries[hit] == query) continue;
+			queries[hit] = query;
+			if (maxX < hitBounds[b] || maxY < hitBounds[b + 1] || minX > hitBounds[b + 2] || minY > hitBounds[b + 3]) continue;
+			Hit h = hits.get(hit);
+			if (h.bounds.intersectsSegment(h.polygon, x1, y1, x2, y2)) return hit;
+		}
+		return -1;
+	}
+
+	/** Adds each polygon that overlaps the axis aligned rectangle to the results. A polygon overlaps if it has a vertex inside the
+	 * rectangle, it contains a corner of the rectangle, or one of its edges crosses an edge of the rectangle. The hits are valid
+	 * until the next {@link #update()}.
+	 * @return The number of hits added. */
+	public int intersectsAabb (float minX, float minY, float maxX, float maxY, Array<Hit> results) {
+		if (results == null) throw new IllegalArgumentException("results cannot be null.");
+		nextQuery();
+		int count = intersectsAabb(large, minX, minY, maxX, maxY, results);
+		float invCellSize = this.invCellSize;
+		int startX = cell(minX * invCellSize), startY = cell(minY * invCellSize);
+		int endX = cell(maxX * invCellSize), endY = cell(maxY * invCellSize);
+		if ((long)(endX - startX + 1) * (endY - startY + 1) > cells.size) {
+			// The rectangle covers more cells than are occupied.
+			for (LongMap.Entry<IntArray> entry : cells.entries()) {
+				long key = entry.key;
+				int cx = (int)(key >> 32), cy = (int)key;
+				if (cx >= startX && cx <= endX && cy >= startY && cy <= endY)
+					count += intersectsAabb(entry.value, minX, minY, maxX, maxY, results);
+			}
+		} else {
+			for (int cy = startY; cy <= endY; cy++) {
+				for (int cx = startX; cx <= endX; cx++) {
+					IntArray cell = cells.get(key(cx, cy));
+					if (cell != null) count += intersectsAabb(cell, minX, minY, maxX, maxY, results);
+				}
+			}
+		}
+		return count;
+	}
+
+	private int intersectsAabb (IntArray candidates, float minX, float minY, float maxX, float maxY, Array<Hit> results) {
+		int[] items = candidates.items, queries = this.queries;
+		float[] hitBounds = this.hitBounds.items;
+		int query = this.query, count = 0;
+		for (int i = 0, n = candidates.size; i < n; i++) {
+			int hit = items[i], b = hit << 2;
+			if (queries[hit] == query) continue;
+			queries[hit] = query;
+			if (maxX < hitBounds[b] || maxY < hitBounds[b + 1] || minX > hitBounds[b + 2] || minY > hitBounds[b + 3]) continue;
+			Hit h = hits.get(hit);
+			if (overlaps(h, minX, minY, maxX, maxY)) {
+				results.add(h);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	static private boolean overlaps (Hit hit, float minX, float minY, float maxX, float maxY) {
+		float[] hitVertices = hit.polygon.items;
+		for (int i = 0, n = hit.polygon.size; i < n; i += 2) {
+			float x = hitVertices[i], y = hitVertices[i + 1];
+			if (x >= minX && x <= maxX && y >= minY && y <= maxY) return true;
+		}
+		SkeletonBounds bounds = hit.bounds;
+		FloatArray polygon = hit.polygon;
+		return bounds.containsPoint(polygon, minX, minY) //
+			|| bounds.intersectsSegment(polygon, minX, minY, maxX, minY) //
+			|| bounds.intersectsSegment(polygon, maxX, minY, maxX, maxY) //
+			|| bounds.intersectsSegment(polygon, maxX, maxY, minX, maxY) //
+			|| bounds.intersectsSegment(polygon, minX, maxY, minX, minY);
+	}
+
+	private void nextQuery () {
+		if (++query == 0) {
+			Arrays.fill(queries, 0);
+			query = 1;
+		}
+	}
+
+	static private int cell (float value) {
+		return (int)Math.floor(value);
+	}
+
+	static private long key (int cx, int cy) {
+		return (long)cx << 32 | cy & 0xffffffffL;
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+	/** The maximum number of cells a polygon is inserted into. Larger polygons are tested by every query. Defaults to 64. */
+	public int getMaxCells () {
+		return maxCells;
+	}
+
+	public void setMaxCells (int maxCells) {
+		if (maxCells < 1) throw new IllegalArgumentException("maxCells must be > 0: " + maxCells);
+		this.maxCells = maxCells;
+	}
+
+	public Array<Skeleton> getSkeletons () {
+		return skeletons;
+	}
+
+	/** The number of polygons indexed by the last {@link #update()}. */
+	public int getPolygonCount () {
+		return hitCount;
+	}
+
+	/** The number of grid cells that contain at least one polygon. */
+	public int getCellCount () {
+		return cells.size;
+	}
+
+	/** A bounding box polygon found by a query. */
+	static public class Hit {
+		Skeleton skeleton;
+		SkeletonBounds bounds;
+		BoundingBoxAttachment boundingBox;
+		FloatArray polygon;
+
+		public Skeleton getSkeleton () {
+			return skeleton;
+		}
+
+		public SkeletonBounds getBounds () {
+			return bounds;
+		}
+
+		public BoundingBoxAttachment getBoundingBox () {
+			return boundingBox;
+		}
+
+		/** The world vertices of the bounding box polygon. */
+		public FloatArray getPolygon () {
+			return polygon;
+		}
+	}
+}
@@ -32,27 +32,46 @@ package com.esotericsoftware.spine.utils;
 
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ShortArray;
+import com.esotericsoftware.spine.Bone;
 import com.esotericsoftware.spine.Slot;
 import com.esotericsoftware.spine.attachments.ClippingAttachment;
 
 public class SkeletonClipping {
+	static private final int outside = -1, crossing = 0, inside = 1;
+
 	private final Triangulator triangulator = new Triangulator();
 	private final FloatArray clippingPolygon = new FloatArray();
 	private final FloatArray clipOutput = new FloatArray(128);
 	private final FloatArray clippedVertices = new FloatArray(128);
 	private final ShortArray clippedTriangles = new ShortArray(128);
 	private final FloatArray scratch = new FloatArray();
+	private final FloatArray clippingBounds = new FloatArray(); // minX, minY, maxX, maxY, ...
+
+	private final ObjectMap<ClippingAttachment, Decomposition> decompositions = new ObjectMap();
+	private final Array<FloatArray> worldPolygons = new Array(), worldPolygonsCache = new Array();
 
 	private ClippingAttachment clipAttachment;
 	private Array<FloatArray> clippingPolygons;
+	private int accepted, rejected, clipped;
 
+	/** Starts clipping with the specified clipping attachment. For an unweighted clipping attachment without deform, the convex
+	 * decomposition of its local vertices is computed once and cached, then only transformed to world coordinates by the slot's
+	 * bone. Otherwise the decomposition is computed from the world vertices each time.
+	 * @return The number of convex polygons in the clipping area, or 0 if clipping could not be started. */
 	public int clipStart (Slot slot, ClippingAttachment clip) {
 		if (clipAttachment != null) return 0;
 		int n = clip.getWorldVerticesLength();
 		if (n < 6) return 0;
 		clipAttachment = clip;
 
+		if (clip.getBones() == null && slot.getAttachmentVertices().size == 0) {
+			clippingPolygons = transform(slot.getBone(), decomposition(clip));
+			computeBounds();
+			return clippingPolygons.size;
+		}
+
 		float[] vertices = clippingPolygon.setSize(n);
 		clip.computeWorldVertices(slot, 0, n, vertices, 0, 2);
 		makeClockwise(clippingPolygon);
@@ -63,9 +82,101 @@ public class SkeletonClipping {
 			polygon.add(polygon.items[0]);
 			polygon.add(polygon.items[1]);
 		}
+		computeBounds();
 		return clippingPolygons.size;
 	}
 
+	private void computeBounds () {
+		Object[] polygons = clippingPolygons.items;
+		int polygonsCount = clippingPolygons.size;
+		float[] bounds = clippingBounds.setSize(polygonsCount << 2);
+		for (int p = 0, b = 0; p < polygonsCount; p++, b += 4) {
+			FloatArray polygon = (FloatArray)polygons[p];
+			float[] vertices = polygon.items;
+			float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+			for (int i = 0, n = polygon.size; i < n; i += 2) {
+				float x = vertices[i], y = vertices[i + 1];
+				minX = Math.min(minX, x);
+				minY = Math.min(minY, y);
+				maxX = Math.max(maxX, x);
+				maxY = Math.max(maxY, y);
+			}
+			bounds[b] = minX;
+			bounds[b + 1] = minY;
+			bounds[b + 2] = maxX;
+			bounds[b + 3] = maxY;
+		}
+	}
+
+	private Decomposition decomposition (ClippingAttachment clip) {
+		float[] vertices = clip.getVertices();
+		int n = clip.getWorldVerticesLength();
+		Decomposition decomposition = decompositions.get(clip);
+		if (decomposition != null && decomposition.vertices == vertices && decomposition.length == n) return decomposition;
+
+		clippingPolygon.clear();
+		clippingPolygon.addAll(vertices, 0, n);
+		makeClockwise(clippingPolygon);
+		Array<FloatArray> convexPolygons = triangulator.decompose(clippingPolygon, triangulator.triangulate(clippingPolygon));
+		Array<FloatArray> polygons = new Array(convexPolygons.size);
+		for (FloatArray polygon : convexPolygons) {
+			makeClockwise(polygon);
+			polygons.add(new FloatArray(polygon));
+		}
+		clippingPolygon.clear();
+
+		if (decomposition == null) {
+			decomposition = new Decomposition();
+			decompositions.put(clip, decomposition);
+		}
+		decomposition.vertices = vertices;
+		decomposition.length = n;
+		decomposition.polygons = polygons;
+		return decomposition;
+	}
+
+	/** Transforms the local convex polygons to world coordinates, winds them clockwise and closes them. */
+	private Array<FloatArray> transform (Bone bone, Decomposition decomposition) {
+		float a = bone.getA(), b = bone.getB(), c = bone.getC(), d = bone.getD(), x = bone.getWorldX(), y = bone.getWorldY();
+		boolean reflected = a * d - b * c < 0; // Clockwise local polygons become counterclockwise.
+		Array<FloatArray> worldPolygons = this.worldPolygons, worldPolygonsCache = this.worldPolygonsCache;
+		Object[] polygons = decomposition.polygons.items;
+		int polygonsCount = decomposition.polygons.size;
+		worldPolygons.clear();
+		while (worldPolygonsCache.size < polygonsCount)
+			worldPolygonsCache.add(new FloatArray(16));
+		for (int i = 0; i < polygonsCount; i++) {
+			FloatArray local = (FloatArray)polygons[i];
+			float[] localVertices = local.items;
+			int n = local.size;
+			FloatArray world = worldPolygonsCache.get(i);
+			worldPolygons.add(world);
+			float[] worldVertices = world.setSize(n + 2);
+			if (reflected) {
+				for (int v = n - 2, w = 0; v >= 0; v -= 2, w += 2) {
+					float vx = localVertices[v], vy = localVertices[v + 1];
+					worldVertices[w] = vx * a + vy * b + x;
+					worldVertices[w + 1] = vx * c + vy * d + y;
+				}
+			} else {
+				for (int v = 0; v < n; v += 2) {
+					float vx = localVertices[v], vy = localVertices[v + 1];
+					worldVertices[v] = vx * a + vy * b + x;
+					worldVertices[v + 1] = vx * c + vy * d + y;
+				}
+			}
+			worldVertices[n] = worldVertices[0];
+			worldVertices[n + 1] = worldVertices[1];
+		}
+		return worldPolygons;
+	}
+
+	/** Removes the cached convex decompositions of clipping attachments. The cache is otherwise only updated when an attachment's
+	 * vertices array or world vertices length changes. */
+	public void clearCache () {
+		decompositions.clear();
+	}
+
 	public void clipEnd (Slot slot) {
 		if (clipAttachment != null && clipAttachment.getEndSlot() == slot.getData()) clipEnd();
 	}
@@ -88,6 +199,7 @@ public class SkeletonClipping {
 
 		FloatArray clipOutput = this.clipOutput, clippedVertices = this.clippedVertices;
 		ShortArray clippedTriangles = this.clippedTriangles;
+		float[] bounds = clippingBounds.items;
 		Object[] polygons = clippingPolygons.items;
 		int polygonsCount = clippingPolygons.size;
 		int vertexSize = twoColor ? 6 : 5;
@@ -109,11 +221,20 @@ public class SkeletonClipping {
 			float x3 = vertices[vertexOffset], y3 = vertices[vertexOffset + 1];
 			float u3 = uvs[vertexOffset], v3 = uvs[vertexOffset + 1];
 
-			for (int p = 0; p < polygonsCount; p++) {
+			float minX = Math.min(x1, Math.min(x2, x3)), minY = Math.min(y1, Math.min(y2, y3));
+			float maxX = Math.max(x1, Math.max(x2, x3)), maxY = Math.max(y1, Math.max(y2, y3));
+			boolean output = false;
+			for (int p = 0, bi = 0; p < polygonsCount; p++, bi += 4) {
+				if (minX > bounds[bi + 2] || maxX < bounds[bi] || minY > bounds[bi + 3] || maxY < bounds[bi + 1]) continue;
+				FloatArray polygon = (FloatArray)polygons[p];
+				int side = classify(x1, y1, x2, y2, x3, y3, polygon);
+				if (side == outside) continue;
 				int s = clippedVertices.size;
-				if (clip(x1, y1, x2, y2, x3, y3, (FloatArray)polygons[p], clipOutput)) {
+				if (side == crossing) {
+					clip(x1, y1, x2, y2, x3, y3, polygon, clipOutput);
 					int clipOutputLength = clipOutput.size;
 					if (clipOutputLength == 0) continue;
+					output = true;
 					float d0 = y2 - y3, d1 = x3 - x2, d2 = x1 - x3, d4 = y3 - y1;
 					float d = 1 / (d0 * d2 + d1 * (y1 - y3));
 
@@ -196,10 +317,34 @@ public class SkeletonClipping {
 					clippedTrianglesItems[s + 1] = (short)(index + 1);
 					clippedTrianglesItems[s + 2] = (short)(index + 2);
 					index += 3;
+					accepted++;
 					continue outer;
 				}
 			}
+			if (output)
+				clipped++;
+			else
+				rejected++;
+		}
+	}
+
+	/** Returns {@link #inside} if the triangle lies entirely within the convex, clockwise clipping area, {@link #outside} if it
+	 * lies entirely outside one of its edges, else {@link #crossing}. The inside test is the same as {@link #clip}, so a triangle
+	 * that is inside would not be changed by clipping. */
+	static private int classify (float x1, float y1, float x2, float y2, float x3, float y3, FloatArray clippingArea) {
+		float[] clippingVertices = clippingArea.items;
+		boolean allInside = true;
+		for (int i = 0, n = clippingArea.size - 2; i < n; i += 2) {
+			float edgeX = clippingVertices[i], edgeY = clippingVertices[i + 1];
+			float edgeX2 = clippingVertices[i + 2], edgeY2 = clippingVertices[i + 3];
+			float deltaX = edgeX - edgeX2, deltaY = edgeY - edgeY2;
+			boolean side1 = deltaX * (y1 - edgeY2) - deltaY * (x1 - edgeX2) > 0;
+			boolean side2 = deltaX * (y2 - edgeY2) - deltaY * (x2 - edgeX2) > 0;
+			boolean side3 = deltaX * (y3 - edgeY2) - deltaY * (x3 - edgeX2) > 0;
+			if (!side1 && !side2 && !side3) return outside;
+			if (!side1 || !side2 || !side3) allInside = false;
 		}
+		return allInside ? inside : crossing;
 	}
 
 	/** Clips the input triangle against the convex, clockwise clipping area. If the triangle lies entirely within the clipping
@@ -294,6 +439,28 @@ public class SkeletonClipping {
 		return clippedTriangles;
 	}
 
+	/** The number of triangles passed to {@link #clipTriangles(float[], int, short[], int, float[], float, float, boolean)} that
+	 * were entirely inside the clipping area and were output without clipping. */
+	public int getAccepted () {
+		return accepted;
+	}
+
+	/** The number of triangles that were entirely outside the clipping area and were discarded. */
+	public int getRejected () {
+		return rejected;
+	}
+
+	/** The number of triangles that crossed the clipping area and were clipped. */
+	public int getClipped () {
+		return clipped;
+	}
+
+	public void resetCounters () {
+		accepted = 0;
+		rejected = 0;
+		clipped = 0;
+	}
+
 	static void makeClockwise (FloatArray polygon) {
 		float[] vertices = polygon.items;
 		int verticeslength = polygon.size;
@@ -317,4 +484,11 @@ public class SkeletonClipping {
 			vertices[other + 1] = y;
 		}
 	}
+
+	/** The clockwise convex polygons of a clipping attachment's local vertices. */
+	static class Decomposition {
+		float[] vertices;
+		int length;
+		Array<FloatArray> polygons;
+	}
 }
@@ -0,0 +1,194 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+package com.esotericsoftware.spine.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.CompressedDeformTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.DrawOrderTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+
+/** Shares arrays with the same contents between the attachments and timelines of one or more {@link SkeletonData}, so each
+ * distinct array is kept in memory only once.
+ * <p>
+ * The arrays shared are the vertices and bones of vertex attachments, the region UVs, triangles and edges of meshes, the lengths
+ * of paths, the vertices of deform timeline key frames and the draw orders of draw order timeline key frames. These arrays are
+ * not changed by the runtime after loading. They must not be changed by the application after being shared, as the change
+ * would affect every attachment or timeline that shares the array. Mesh UVs are not shared because
+ * {@link MeshAttachment#updateUVs()} writes to them. {@link CompressedDeformTimeline Compressed deform timelines} are not
+ * changed, decoding their key frames to share them would use more memory than they do.
+ * <p>
+ * Skeleton data loaded for many rigs, with many skins, or multiple times, for example with different atlases, often has many
+ * identical arrays. Using the same interner for all of them shares arrays across skeleton data. */
+public class SkeletonDataInterner {
+	private final ObjectMap<Key, Object> arrays = new ObjectMap();
+	private final Key lookup = new Key();
+	private final Array<Attachment> attachments = new Array();
+	private int sharedCount;
+	private long sharedBytes;
+
+	/** Replaces the arrays of the skeleton data's attachments and timelines with arrays that have the same contents, which were
+	 * seen previously by this interner. */
+	public void intern (SkeletonData skeletonData) {
+		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
+		Array<Skin> skins = skeletonData.getSkins();
+		for (int i = 0, n = skins.size; i < n; i++)
+			intern(skeletonData, skins.get(i));
+		Skin defaultSkin = skeletonData.getDefaultSkin();
+		if (defaultSkin != null && !skins.contains(defaultSkin, true)) intern(skeletonData, defaultSkin);
+
+		Array<Animation> animations = skeletonData.getAnimations();
+		for (int i = 0, n = animations.size; i < n; i++) {
+			Array<Timeline> timelines = animations.get(i).getTimelines();
+			for (int ii = 0, nn = timelines.size; ii < nn; ii++) {
+				Timeline timeline = timelines.get(ii);
+				if (timeline instanceof DeformTimeline) {
+					DeformTimeline deform = (DeformTimeline)timeline;
+					float[] frames = deform.getFrames();
+					float[][] vertices = deform.getVertices();
+					int[] offsets = deform.getOffsets();
+					for (int frame = 0, frameCount = frames.length; frame < frameCount; frame++)
+						deform.setFrame(frame, frames[frame], (float[])intern(vertices[frame]), offsets[frame]);
+				} else if (timeline instanceof DrawOrderTimeline) {
+					int[][] drawOrders = ((DrawOrderTimeline)timeline).getDrawOrders();
+					for (int frame = 0, frameCount = drawOrders.length; frame < frameCount; frame++)
+						drawOrders[frame] = (int[])intern(drawOrders[frame]);
+				}
+			}
+		}
+	}
+
+	private void intern (SkeletonData skeletonData, Skin skin) {
+		Array<Attachment> attachments = this.attachments;
+		for (int slotIndex = 0, n = skeletonData.getSlots().size; slotIndex < n; slotIndex++) {
+			attachments.clear();
+			skin.findAttachmentsForSlot(slotIndex, attachments);
+			for (int i = 0, nn = attachments.size; i < nn; i++) {
+				Attachment attachment = attachments.get(i);
+				if (!(attachment instanceof VertexAttachment)) continue;
+				VertexAttachment vertexAttachment = (VertexAttachment)attachment;
+				vertexAttachment.setVertices((float[])intern(vertexAttachment.getVertices()));
+				vertexAttachment.setBones((int[])intern(vertexAttachment.getBones()));
+				if (attachment instanceof MeshAttachment) {
+					MeshAttachment mesh = (MeshAttachment)attachment;
+					mesh.setRegionUVs((float[])intern(mesh.getRegionUVs()));
+					mesh.setTriangles((short[])intern(mesh.getTriangles()));
+					mesh.setEdges((short[])intern(mesh.getEdges()));
+				} else if (attachment instanceof PathAttachment) {
+					PathAttachment path = (PathAttachment)attachment;
+					path.setLengths((float[])intern(path.getLengths()));
+				}
+			}
+		}
+		attachments.clear();
+	}
+
+	/** Returns a previously seen array with the same type and contents, or the specified array if none was seen.
+	 * @param array May be null. */
+	private Object intern (Object array) {
+		if (array == null || array == DeformTimeline.EMPTY) return array;
+		Key lookup = this.lookup;
+		lookup.set(array);
+		Object shared = arrays.get(lookup);
+		lookup.array = null;
+		if (shared == null) {
+			Key key = new Key();
+			key.set(array);
+			arrays.put(key, array);
+			return array;
+		}
+		if (shared != array) {
+			sharedCount++;
+			sharedBytes += bytes(array);
+		}
+		return shared;
+	}
+
+	static private long bytes (Object array) {
+		if (array instanceof float[]) return ((float[])array).length * 4L;
+		if (array instanceof int[]) return ((int[])array).length * 4L;
+		return ((short[])array).length * 2L;
+	}
+
+	/** The number of arrays replaced by a shared array. */
+	public int getSharedCount () {
+		return sharedCount;
+	}
+
+	/** The number of bytes used by the contents of the arrays replaced by a shared array. */
+	public long getSharedBytes () {
+		return sharedBytes;
+	}
+
+	/** Forgets the arrays seen so far. Arrays already shared remain shared. */
+	public void clear () {
+		arrays.clear();
+		sharedCount = 0;
+		sharedBytes = 0;
+	}
+
+	/** Compares arrays by type and contents. Float arrays are compared bitwise, so 0 and -0 are different. */
+	static private class Key {
+		Object array;
+		int hashCode;
+
+		void set (Object array) {
+			this.array = array;
+			if (array instanceof float[])
+				hashCode = Arrays.hashCode((float[])array);
+			else if (array instanceof int[])
+				hashCode = Arrays.hashCode((int[])array) * 31 + 1;
+			else
+				hashCode = Arrays.hashCode((short[])array) * 31 + 2;
+		}
+
+		public int hashCode () {
+			return hashCode;
+		}
+
+		public boolean equals (Object object) {
+			if (object == null || ((Key)object).hashCode != hashCode) return false;
+			Object other = ((Key)object).array;
+			if (array instanceof float[]) return other instanceof float[] && Arrays.equals((float[])array, (float[])other);
+			if (array instanceof int[]) return other instanceof int[] && Arrays.equals((int[])array, (int[])other);
+			return other instanceof short[] && Arrays.equals((short[])array, (short[])other);
+		}
+	}
+}
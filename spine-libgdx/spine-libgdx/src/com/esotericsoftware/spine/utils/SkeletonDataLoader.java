@@ -0,0 +1,134 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.SkeletonJson;
+import com.esotericsoftware.spine.attachments.AtlasAttachmentLoader;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+
+/** Loads skeleton data from many files in parallel using an {@link ExecutorService}. Files with the "skel" extension are read
+ * using {@link #getBinary()}, other files are read using {@link #getJson()}. Both share the attachment loader, which must be
+ * thread safe, as {@link AtlasAttachmentLoader} is.
+ * <p>
+ * The settings of the binary and JSON readers, such as the scale, must not be changed while files are loading. */
+public class SkeletonDataLoader implements Disposable {
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;
+	private final SkeletonBinary binary;
+	private final SkeletonJson json;
+
+	/** Creates a loader with a new executor using a thread for each available processor. */
+	public SkeletonDataLoader (TextureAtlas atlas) {
+		this(new AtlasAttachmentLoader(atlas), Runtime.getRuntime().availableProcessors());
+	}
+
+	/** Creates a loader with a new executor using the specified number of threads. */
+	public SkeletonDataLoader (AttachmentLoader attachmentLoader, int threads) {
+		if (attachmentLoader == null) throw new IllegalArgumentException("attachmentLoader cannot be null.");
+		if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+		executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread (Runnable runnable) {
+				Thread thread = new Thread(runnable, "SkeletonDataLoader-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		ownsExecutor = true;
+		binary = new SkeletonBinary(attachmentLoader);
+		json = new SkeletonJson(attachmentLoader);
+	}
+
+	/** Creates a loader using the specified executor, which is not shut down by {@link #dispose()}. */
+	public SkeletonDataLoader (AttachmentLoader attachmentLoader, ExecutorService executor) {
+		if (attachmentLoader == null) throw new IllegalArgumentException("attachmentLoader cannot be null.");
+		if (executor == null) throw new IllegalArgumentException("executor cannot be null.");
+		this.executor = executor;
+		ownsExecutor = false;
+		binary = new SkeletonBinary(attachmentLoader);
+		json = new SkeletonJson(attachmentLoader);
+	}
+
+	/** Starts loading the skeleton data. If reading fails, {@link Future#get()} throws an
+	 * {@link java.util.concurrent.ExecutionException} with the cause. */
+	public Future<SkeletonData> load (final FileHandle file) {
+		if (file == null) throw new IllegalArgumentException("file cannot be null.");
+		return executor.submit(new Callable<SkeletonData>() {
+			public SkeletonData call () {
+				if (file.extension().equalsIgnoreCase("skel")) return binary.readSkeletonData(file);
+				return json.readSkeletonData(file);
+			}
+		});
+	}
+
+	/** Starts loading the skeleton data for each file.
+	 * @return The futures in the same order as the files. */
+	public Array<Future<SkeletonData>> loadAll (Array<FileHandle> files) {
+		if (files == null) throw new IllegalArgumentException("files cannot be null.");
+		Array<Future<SkeletonData>> futures = new Array(files.size);
+		for (int i = 0, n = files.size; i < n; i++)
+			futures.add(load(files.get(i)));
+		return futures;
+	}
+
+	/** The reader used for files with the "skel" extension. */
+	public SkeletonBinary getBinary () {
+		return binary;
+	}
+
+	/** The reader used for files without the "skel" extension. */
+	public SkeletonJson getJson () {
+		return json;
+	}
+
+	public ExecutorService getExecutor () {
+		return executor;
+	}
+
+	/** Shuts down the executor if it was created by this loader. Files already submitted are still loaded. */
+	public void dispose () {
+		if (ownsExecutor) executor.shutdown();
+	}
+}
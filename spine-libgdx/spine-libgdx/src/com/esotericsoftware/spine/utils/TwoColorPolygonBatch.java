@@ -58,6 +58,11 @@ public class TwoColorPolygonBatch {
 	private int blendDstFuncAlpha = GL20.GL_ONE_MINUS_SRC_ALPHA;
 	private boolean premultipliedAlpha;
 
+	/** Number of render calls since the last {@link #begin()}. */
+	public int renderCalls;
+	/** Number of rendering calls, ever. Will not be reset unless set manually. */
+	public int totalRenderCalls;
+
 	public TwoColorPolygonBatch (int size) {
 		this(size, size * 2);
 	}
@@ -84,6 +89,7 @@ public class TwoColorPolygonBatch {
 
 	public void begin () {
 		if (drawing) throw new IllegalStateException("end must be called before begin.");
+		renderCalls = 0;
 		Gdx.gl.glDepthMask(false);
 		shader.begin();
 		setupMatrices();
@@ -135,6 +141,8 @@ public class TwoColorPolygonBatch {
 		Gdx.gl.glEnable(GL20.GL_BLEND);
 		if (blendSrcFunc != -1) Gdx.gl.glBlendFuncSeparate(blendSrcFunc, blendDstFunc, blendSrcFuncAlpha, blendDstFuncAlpha);
 		mesh.render(shader, GL20.GL_TRIANGLES, 0, triangleIndex);
+		renderCalls++;
+		totalRenderCalls++;
 
 		vertexIndex = 0;
 		triangleIndex = 0;
@@ -0,0 +1,269 @@
+/******************************************************************************
+ * Spine Runtimes Software License v2.5
+ *
+ * Copyright (c) 2013-2016, Esoteric Software
+ * All rights reserved.
+ *
+ * You are granted a perpetual, non-exclusive, non-sublicensable, and
+ * non-transferable license to use, install, execute, and perform the Spine
+ * Runtimes software and derivative works solely for personal or internal
+ * use. Without the written permission of Esoteric Software (see Section 2 of
+ * the Spine Software License Agreement), you may not (a) modify, translate,
+ * adapt, or develop new applications using the Spine Runtimes or otherwise
+ * create derivative works or improvements of the Spine Runtimes or (b) remove,
+ * delete, alter, or obscure any trademarks or any copyright, trademark, patent,
+ * or other intellectual property or proprietary rights notices on or in the
+ * Software, including any copy thereof. Redistributions in binary or source
+ * form must include this license and terms.
+ *
+ * THIS SOFTWARE IS PROVIDED BY ESOTERIC SOFTWARE "AS IS" AND ANY EXPRESS OR
+ * IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ * EVENT SHALL ESOTERIC SOFTWARE BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, BUSINESS INTERRUPTION, OR LOSS OF
+ * USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonPose;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+
+/** Computes the world vertices of a weighted {@link VertexAttachment} using flat bone world transforms, such as
+ * {@link SkeletonPose#getWorld()}, instead of visiting a {@link Bone} for each influence.
+ * <p>
+ * The attachment's {@link VertexAttachment#getBones() bones} and {@link VertexAttachment#getVertices() vertices} are compacted
+ * and grouped by the number of influences per vertex. Each group of vertices with 1 to 4 influences is computed by an unrolled
+ * loop, so the inner loop is straight-line float math without padding. The output is the same as
+ * {@link VertexAttachment#computeWorldVertices(Slot, int, int, float[], int, int)} for all of the vertices.
+ * <p>
+ * The layout is computed from the attachment when the skinner is created, so it must be recreated if the attachment's bones or
+ * vertices are changed. A skinner can be used for any number of skeletons, but not by multiple threads at once. */
+public class WeightedVertexSkinner {
+	/** The largest number of influences computed by an unrolled loop. */
+	static private final int UNROLLED = 4;
+
+	private final VertexAttachment attachment;
+	private final int vertexCount, influences;
+	/** For each group, the index of the first vertex in {@link #order}, followed by the vertex count. Group 0 has the vertices
+	 * with no influences or more than {@link #UNROLLED}, the other groups have the vertices with that many influences. */
+	private final int[] groups = new int[UNROLLED + 2];
+	/** The index in {@link #bones} of the first influence of each group. */
+	private final int[] groupInfluences = new int[UNROLLED + 1];
+	/** The vertex indices, sorted by group. */
+	private final int[] order;
+	/** The number of influences and the index of the first deform value for each vertex, in sorted order. */
+	private final int[] counts, deformOffsets;
+	/** For each influence, the bone index multiplied by {@link SkeletonPose#WORLD_SIZE}. */
+	private final int[] bones;
+	/** For each influence, x, y and weight. */
+	private final float[] vertices;
+	/** Used when there is no deform, so the loops are the same with and without a deform. */
+	private final float[] zeros;
+	private final FloatArray boneWorld = new FloatArray(0);
+
+	public WeightedVertexSkinner (VertexAttachment attachment) {
+		if (attachment == null) throw new IllegalArgumentException("attachment cannot be null.");
+		int[] attachmentBones = attachment.getBones();
+		if (attachmentBones == null) throw new IllegalArgumentException("attachment has no weights: " + attachment);
+		this.attachment = attachment;
+		int vertexCount = attachment.getWorldVerticesLength() >> 1;
+		this.vertexCount = vertexCount;
+
+		// Find the start of each vertex's bones and count the vertices in each group, then sum the counts to find where each
+		// group starts.
+		int[] starts = new int[vertexCount], groups = this.groups;
+		int influences = 0;
+		for (int i = 0, v = 0; i < vertexCount; i++) {
+			starts[i] = v;
+			int n = attachmentBones[v];
+			influences = Math.max(influences, n);
+			groups[n <= UNROLLED ? n + 1 : 1]++;
+			v += n + 1;
+		}
+		this.influences = influences;
+		for (int i = 1; i <= UNROLLED + 1; i++)
+			groups[i] += groups[i - 1];
+
+		order = new int[vertexCount];
+		counts = new int[vertexCount];
+		deformOffsets = new int[vertexCount];
+		int[] next = groups.clone();
+		for (int i = 0, f = 0; i < vertexCount; i++) {
+			int n = attachmentBones[starts[i]];
+			int o = next[n > 0 && n <= UNROLLED ? n : 0]++;
+			order[o] = i;
+			counts[o] = n;
+			deformOffsets[o] = f;
+			f += n << 1;
+		}
+
+		// Compact the influences in sorted order.
+		float[] attachmentVertices = attachment.getVertices();
+		int total = attachmentBones.length - vertexCount;
+		bones = new int[total];
+		vertices = new float[total * 3];
+		for (int o = 0, s = 0, g = 0; o < vertexCount; o++) {
+			while (g <= UNROLLED && groups[g] == o)
+				groupInfluences[g++] = s;
+			int v = starts[order[o]], b = deformOffsets[o] / 2 * 3;
+			for (int ii = 0, n = counts[o]; ii < n; ii++, s++, b += 3) {
+				bones[s] = attachmentBones[v + 1 + ii] * SkeletonPose.WORLD_SIZE;
+				vertices[s * 3] = attachmentVertices[b];
+				vertices[s * 3 + 1] = attachmentVertices[b + 1];
+				vertices[s * 3 + 2] = attachmentVertices[b + 2];
+			}
+		}
+		zeros = new float[total << 1];
+	}
+
+	/** Computes the world vertices for all of the attachment's vertices using the world transforms copied from the skeleton's
+	 * bones. To skin many attachments with a single copy, use {@link Skeleton#getPose(SkeletonPose)} and
+	 * {@link #computeWorldVertices(float[], float[], float[], int, int)}. If the slot has {@link Slot#getAttachmentVertices()},
+	 * they are used to deform the vertices.
+	 * @param worldVertices The output world vertices. Must have a length >= <code>offset</code> + vertex count *
+	 *           <code>stride</code>.
+	 * @param offset The <code>worldVertices</code> index to begin writing values.
+	 * @param stride The number of <code>worldVertices</code> entries between the value pairs written. */
+	public void computeWorldVertices (Slot slot, float[] worldVertices, int offset, int stride) {
+		Skeleton skeleton = slot.getSkeleton();
+		Object[] skeletonBones = skeleton.getBones().items;
+		int boneCount = skeleton.getBones().size;
+		float[] world = boneWorld.setSize(boneCount * SkeletonPose.WORLD_SIZE);
+		for (int i = 0, w = 0; i < boneCount; i++, w += SkeletonPose.WORLD_SIZE) {
+			Bone bone = (Bone)skeletonBones[i];
+			world[w] = bone.getA();
+			world[w + 1] = bone.getB();
+			world[w + 2] = bone.getC();
+			world[w + 3] = bone.getD();
+			world[w + 4] = bone.getWorldX();
+			world[w + 5] = bone.getWorldY();
+		}
+		FloatArray deformArray = slot.getAttachmentVertices();
+		computeWorldVertices(world, deformArray.size > 0 ? deformArray.items : null, worldVertices, offset, stride);
+	}
+
+	/** Computes the world vertices for all of the attachment's vertices.
+	 * @param world The world transform of each bone, {@link SkeletonPose#WORLD_SIZE} values per bone, as in
+	 *           {@link SkeletonPose#getWorld()}.
+	 * @param deform May be null. The offsets to add to the vertices, 2 values for each influence of each vertex, as in
+	 *           {@link Slot#getAttachmentVertices()}.
+	 * @param worldVertices The output world vertices. Must have a length >= <code>offset</code> + vertex count *
+	 *           <code>stride</code>.
+	 * @param offset The <code>worldVertices</code> index to begin writing values.
+	 * @param stride The number of <code>worldVertices</code> entries between the value pairs written. */
+	public void computeWorldVertices (float[] world, float[] deform, float[] worldVertices, int offset, int stride) {
+		if (deform == null) deform = zeros;
+		skin(world, deform, worldVertices, offset, stride);
+		skin1(world, deform, worldVertices, offset, stride);
+		skin2(world, deform, worldVertices, offset, stride);
+		skin3(world, deform, worldVertices, offset, stride);
+		skin4(world, deform, worldVertices, offset, stride);
+	}
+
+	/** Computes the vertices with no influences or more than {@link #UNROLLED}. */
+	private void skin (float[] world, float[] deform, float[] worldVertices, int offset, int stride) {
+		int[] bones = this.bones, order = this.order, counts = this.counts, deformOffsets = this.deformOffsets;
+		float[] vertices = this.vertices;
+		for (int o = 0, n = groups[1], s = 0, p = 0; o < n; o++) {
+			float wx = 0, wy = 0;
+			for (int sn = s + counts[o], f = deformOffsets[o]; s < sn; s++, p += 3, f += 2) {
+				int b = bones[s];
+				float vx = vertices[p] + deform[f], vy = vertices[p + 1] + deform[f + 1], weight = vertices[p + 2];
+				wx += (vx * world[b] + vy * world[b + 1] + world[b + 4]) * weight;
+				wy += (vx * world[b + 2] + vy * world[b + 3] + world[b + 5]) * weight;
+			}
+			int w = offset + order[o] * stride;
+			worldVertices[w] = wx;
+			worldVertices[w + 1] = wy;
+		}
+	}
+
+	private void skin1 (float[] world, float[] deform, float[] worldVertices, int offset, int stride) {
+		int[] bones = this.bones, order = this.order, deformOffsets = this.deformOffsets;
+		float[] vertices = this.vertices;
+		for (int o = groups[1], n = groups[2], s = groupInfluences[1], p = s * 3; o < n; o++, s++, p += 3) {
+			int b = bones[s], f = deformOffsets[o];
+			float vx = vertices[p] + deform[f], vy = vertices[p + 1] + deform[f + 1], weight = vertices[p + 2];
+			int w = offset + order[o] * stride;
+			worldVertices[w] = (vx * world[b] + vy * world[b + 1] + world[b + 4]) * weight;
+			worldVertices[w + 1] = (vx * world[b + 2] + vy * world[b + 3] + world[b + 5]) * weight;
+		}
+	}
+
+	private void skin2 (float[] world, float[] deform, float[] worldVertices, int offset, int stride) {
+		int[] bones = this.bones, order = this.order, deformOffsets = this.deformOffsets;
+		float[] vertices = this.vertices;
+		for (int o = groups[2], n = groups[3], s = groupInfluences[2], p = s * 3; o < n; o++, s += 2, p += 6) {
+			int b0 = bones[s], b1 = bones[s + 1], f = deformOffsets[o];
+			float vx0 = vertices[p] + deform[f], vy0 = vertices[p + 1] + deform[f + 1], weight0 = vertices[p + 2];
+			float vx1 = vertices[p + 3] + deform[f + 2], vy1 = vertices[p + 4] + deform[f + 3], weight1 = vertices[p + 5];
+			int w = offset + order[o] * stride;
+			worldVertices[w] = (vx0 * world[b0] + vy0 * world[b0 + 1] + world[b0 + 4]) * weight0
+				+ (vx1 * world[b1] + vy1 * world[b1 + 1] + world[b1 + 4]) * weight1;
+			worldVertices[w + 1] = (vx0 * world[b0 + 2] + vy0 * world[b0 + 3] + world[b0 + 5]) * weight0
+				+ (vx1 * world[b1 + 2] + vy1 * world[b1 + 3] + world[b1 + 5]) * weight1;
+		}
+	}
+
+	private void skin3 (float[] world, float[] deform, float[] worldVertices, int offset, int stride) {
+		int[] bones = this.bones, order = this.order, deformOffsets = this.deformOffsets;
+		float[] vertices = this.vertices;
+		for (int o = groups[3], n = groups[4], s = groupInfluences[3], p = s * 3; o < n; o++, s += 3, p += 9) {
+			int b0 = bones[s], b1 = bones[s + 1], b2 = bones[s + 2], f = deformOffsets[o];
+			float vx0 = vertices[p] + deform[f], vy0 = vertices[p + 1] + deform[f + 1], weight0 = vertices[p + 2];
+			float vx1 = vertices[p + 3] + deform[f + 2], vy1 = vertices[p + 4] + deform[f + 3], weight1 = vertices[p + 5];
+			float vx2 = vertices[p + 6] + deform[f + 4], vy2 = vertices[p + 7] + deform[f + 5], weight2 = vertices[p + 8];
+			int w = offset + order[o] * stride;
+			worldVertices[w] = (vx0 * world[b0] + vy0 * world[b0 + 1] + world[b0 + 4]) * weight0
+				+ (vx1 * world[b1] + vy1 * world[b1 + 1] + world[b1 + 4]) * weight1
+				+ (vx2 * world[b2] + vy2 * world[b2 + 1] + world[b2 + 4]) * weight2;
+			worldVertices[w + 1] = (vx0 * world[b0 + 2] + vy0 * world[b0 + 3] + world[b0 + 5]) * weight0
+				+ (vx1 * world[b1 + 2] + vy1 * world[b1 + 3] + world[b1 + 5]) * weight1
+				+ (vx2 * world[b2 + 2] + vy2 * world[b2 + 3] + world[b2 + 5]) * weight2;
+		}
+	}
+
+	private void skin4 (float[] world, float[] deform, float[] worldVertices, int offset, int stride) {
+		int[] bones = this.bones, order = this.order, deformOffsets = this.deformOffsets;
+		float[] vertices = this.vertices;
+		for (int o = groups[4], n = groups[5], s = groupInfluences[4], p = s * 3; o < n; o++, s += 4, p += 12) {
+			int b0 = bones[s], b1 = bones[s + 1], b2 = bones[s + 2], b3 = bones[s + 3], f = deformOffsets[o];
+			float vx0 = vertices[p] + deform[f], vy0 = vertices[p + 1] + deform[f + 1], weight0 = vertices[p + 2];
+			float vx1 = vertices[p + 3] + deform[f + 2], vy1 = vertices[p + 4] + deform[f + 3], weight1 = vertices[p + 5];
+			float vx2 = vertices[p + 6] + deform[f + 4], vy2 = vertices[p + 7] + deform[f + 5], weight2 = vertices[p + 8];
+			float vx3 = vertices[p + 9] + deform[f + 6], vy3 = vertices[p + 10] + deform[f + 7], weight3 = vertices[p + 11];
+			int w = offset + order[o] * stride;
+			worldVertices[w] = (vx0 * world[b0] + vy0 * world[b0 + 1] + world[b0 + 4]) * weight0
+				+ (vx1 * world[b1] + vy1 * world[b1 + 1] + world[b1 + 4]) * weight1
+				+ (vx2 * world[b2] + vy2 * world[b2 + 1] + world[b2 + 4]) * weight2
+				+ (vx3 * world[b3] + vy3 * world[b3 + 1] + world[b3 + 4]) * weight3;
+			worldVertices[w + 1] = (vx0 * world[b0 + 2] + vy0 * world[b0 + 3] + world[b0 + 5]) * weight0
+				+ (vx1 * world[b1 + 2] + vy1 * world[b1 + 3] + world[b1 + 5]) * weight1
+				+ (vx2 * world[b2 + 2] + vy2 * world[b2 + 3] + world[b2 + 5]) * weight2
+				+ (vx3 * world[b3 + 2] + vy3 * world[b3 + 3] + world[b3 + 5]) * weight3;
+		}
+	}
+
+	public VertexAttachment getAttachment () {
+		return attachment;
+	}
+
+	/** The number of vertices, each with 2 world vertex values. */
+	public int getVertexCount () {
+		return vertexCount;
+	}
+
+	/** The most influences used by any vertex of the attachment. */
+	public int getInfluences () {
+		return influences;
+	}
+}